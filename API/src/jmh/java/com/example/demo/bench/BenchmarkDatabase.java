@@ -0,0 +1,130 @@
+package com.example.demo.bench;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.service.OrderStats;
+import com.example.demo.service.ProductCatalogCache;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against the in-memory H2 database of the {@code h2} profile and
+ * seeds it with {@code rows} products and orders. Products come in groups of ten variants
+ * (five sizes, two colors) and every customer owns {@code ORDERS_PER_CUSTOMER} orders and
+ * one login.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+    static final String[] SIZES = {"Small", "Medium", "Large", "X-Large", "XX-Large"};
+    static final String[] COLORS = {"Tan", "Black"};
+    static final String[] STATUSES = {"ORDERED", "SHIPPED", "DELIVERED"};
+    static final String RARE_STATUS = "RETURNED";
+    static final int ORDERS_PER_CUSTOMER = 100;
+    static final int SKU_BASE = 100_000;
+
+    private static final int BATCH = 10_000;
+
+    final int rows;
+    final int customers;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkDatabase(int rows, ConfigurableApplicationContext context) {
+        this.rows = rows;
+        this.customers = Math.max(1, rows / ORDERS_PER_CUSTOMER);
+        this.context = context;
+    }
+
+    static BenchmarkDatabase start(int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("h2")
+                .properties("spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .properties(properties)
+                .run();
+        BenchmarkDatabase db = new BenchmarkDatabase(rows, context);
+        db.seed();
+        context.getBean(ProductCatalogCache.class).invalidate();
+        context.getBean(OrderStats.class).reseed();
+        return db;
+    }
+
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    static int sku(int row) {
+        return SKU_BASE + row;
+    }
+
+    static String productName(int row) {
+        return "Product " + row / (SIZES.length * COLORS.length);
+    }
+
+    static String size(int row) {
+        return SIZES[row % SIZES.length];
+    }
+
+    static String color(int row) {
+        return COLORS[(row / SIZES.length) % COLORS.length];
+    }
+
+    static String userId(int customerId) {
+        return "user" + customerId;
+    }
+
+    static String userPass(int customerId) {
+        return "pass" + customerId;
+    }
+
+    private void seed() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        insert(jdbc, "insert into \"seis739finalschema\".\"product\" "
+                + "(\"sku\", \"product_name\", \"price\", \"img_id\", \"size\", \"color\", \"quantity\") values (?, ?, ?, ?, ?, ?, ?)",
+                rows, i -> new Object[]{sku(i), productName(i), 29.99, 1 + i % 5, size(i), color(i), 1_000_000_000});
+        insert(jdbc, "insert into \"seis739finalschema\".\"customer\" "
+                + "(\"customer_sk\", \"first_name\", \"last_name\", \"email_address\") values (?, ?, ?, ?)",
+                customers, i -> new Object[]{i + 1, "First" + i, "Last" + i, "customer" + i + "@example.com"});
+        insert(jdbc, "insert into \"seis739finalschema\".\"user\" "
+                + "(\"customer_sk\", \"user_id\", \"user_pass\") values (?, ?, ?)",
+                customers, i -> new Object[]{i + 1, userId(i + 1), userPass(i + 1)});
+        insert(jdbc, "insert into \"seis739finalschema\".\"order\" "
+                + "(\"tracking_number\", \"status\", \"order_number\", \"shipping_sk\", \"customer_sk\", \"sku\") "
+                + "values (next value for \"seis739finalschema\".\"order_tracking_number_seq\", ?, ?, ?, ?, ?)",
+                rows, i -> new Object[]{
+                        i % 100 == 0 ? RARE_STATUS : STATUSES[i % STATUSES.length],
+                        String.valueOf(1_700_000_000_000L + i / 3),
+                        1 + i % customers,
+                        1 + i % customers,
+                        sku(i)});
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, int count, RowSource source) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            batch.add(source.row(i));
+            if (batch.size() == BATCH) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private interface RowSource {
+        Object[] row(int i);
+    }
+}
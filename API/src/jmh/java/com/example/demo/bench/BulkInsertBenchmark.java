@@ -0,0 +1,58 @@
+package com.example.demo.bench;
+
+import com.example.demo.model.Order;
+import com.example.demo.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts orders through {@code OrderRepository.saveAll} in one transaction per call.
+ * {@code jdbcBatchSize=1} sends one INSERT round trip per row, which is what IDENTITY ids
+ * forced before; {@code 50} lets the pooled sequence ids go out as JDBC batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BulkInsertBenchmark.ORDERS_PER_CALL)
+public class BulkInsertBenchmark {
+    static final int ORDERS_PER_CALL = 1000;
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    private BenchmarkDatabase db;
+    private OrderRepository orderRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(1000, "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        orderRepository = db.bean(OrderRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public Iterable<Order> saveOrders() {
+        List<Order> orders = new ArrayList<>(ORDERS_PER_CALL);
+        String orderNumber = String.valueOf(System.currentTimeMillis());
+        for (int i = 0; i < ORDERS_PER_CALL; i++) {
+            Order order = new Order();
+            order.setSku(BenchmarkDatabase.sku(i % db.rows));
+            order.setStatus("ORDERED");
+            order.setOrderNumber(orderNumber);
+            order.setCustomerId(1 + i % db.customers);
+            order.setShippingId(1 + i % db.customers);
+            orders.add(order);
+        }
+        return orderRepository.saveAll(orders);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.bench;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.request.ProductFilter;
+import com.example.demo.model.response.FacetedSearchResponse;
+import com.example.demo.model.response.ProductGroup;
+import com.example.demo.model.response.Response;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ApiService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkDatabase db;
+    private ApiService apiService;
+    private ProductRepository productRepository;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(rows);
+        apiService = db.bean(ApiService.class);
+        productRepository = db.bean(ProductRepository.class);
+        objectMapper = db.bean(ObjectMapper.class);
+        apiService.getAllProduct();
+        apiService.searchProducts("product", 10);
+        apiService.searchCatalog(new ProductFilter());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public Iterable<Product> loadCatalogFromDatabase() {
+        return productRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Product> listCatalog() {
+        return apiService.getAllProduct();
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() throws Exception {
+        return objectMapper.writeValueAsBytes(apiService.getAllProduct());
+    }
+
+    @Benchmark
+    public byte[] cachedCatalogPayload() {
+        return apiService.getCatalogPayload().getGzip();
+    }
+
+    @Benchmark
+    public Product productBySku() {
+        return apiService.getProductBySku(BenchmarkDatabase.sku(ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    @Benchmark
+    public Response skuByProduct() {
+        int row = ThreadLocalRandom.current().nextInt(rows);
+        return apiService.getSkuByProduct(BenchmarkDatabase.productName(row),
+                BenchmarkDatabase.size(row), BenchmarkDatabase.color(row));
+    }
+
+    @Benchmark
+    public List<ProductGroup> typeaheadSearch() {
+        int row = ThreadLocalRandom.current().nextInt(rows);
+        String group = String.valueOf(row / (BenchmarkDatabase.SIZES.length * BenchmarkDatabase.COLORS.length));
+        return apiService.searchProducts("prod " + group.substring(0, Math.min(2, group.length())) + " bla", 10);
+    }
+
+    @Benchmark
+    public FacetedSearchResponse facetedSearch() {
+        int row = ThreadLocalRandom.current().nextInt(rows);
+        ProductFilter filter = new ProductFilter();
+        filter.setSize(List.of(BenchmarkDatabase.size(row), BenchmarkDatabase.size(row + 1)));
+        filter.setColor(List.of(BenchmarkDatabase.color(row)));
+        filter.setMaxPrice(50.0);
+        filter.setInStock(true);
+        return apiService.searchCatalog(filter);
+    }
+}
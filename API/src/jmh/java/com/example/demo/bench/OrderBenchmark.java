@@ -0,0 +1,80 @@
+package com.example.demo.bench;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.response.AdminOrderRow;
+import com.example.demo.model.response.OrderStatsResponse;
+import com.example.demo.model.response.PageResponse;
+import com.example.demo.model.response.Response;
+import com.example.demo.service.ApiService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkDatabase db;
+    private ApiService apiService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(rows);
+        apiService = db.bean(ApiService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public List<Order> ordersByCustomer() {
+        return apiService.getOrdersByCustomerId(1 + ThreadLocalRandom.current().nextInt(db.customers));
+    }
+
+    @Benchmark
+    public List<Order> ordersBySku() {
+        return apiService.getOrdersBySku(BenchmarkDatabase.sku(ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    @Benchmark
+    public List<Order> ordersByRareStatus() {
+        return apiService.getOrdersByStatus(BenchmarkDatabase.RARE_STATUS);
+    }
+
+    @Benchmark
+    public PageResponse<Order> firstOrderPageByStatus() {
+        return apiService.getOrderPage(null, BenchmarkDatabase.STATUSES[1], null, 100);
+    }
+
+    @Benchmark
+    public PageResponse<AdminOrderRow> firstAdminOrderPage() {
+        return apiService.getAdminOrderPage(null, null, null, 100);
+    }
+
+    @Benchmark
+    public OrderStatsResponse orderStats() {
+        return apiService.getOrderStats(10);
+    }
+
+    @Benchmark
+    public Response addOrder() {
+        int row = ThreadLocalRandom.current().nextInt(rows);
+        Order order = new Order();
+        order.setSku(BenchmarkDatabase.sku(row));
+        order.setStatus("ORDERED");
+        order.setOrderNumber(String.valueOf(System.currentTimeMillis()));
+        order.setCustomerId(1 + row % db.customers);
+        order.setShippingId(1 + row % db.customers);
+        return apiService.addOrder(order);
+    }
+}
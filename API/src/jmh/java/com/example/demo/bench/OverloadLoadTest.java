@@ -0,0 +1,154 @@
+package com.example.demo.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop overload test for admission control on the write endpoints. Each mode boots
+ * the API on a random port over a freshly seeded H2 database, logs {@code clients} callers in
+ * as seeded customers and has them post orders for a handful of hot SKUs back to back, far
+ * more than the checkout pool can serve. A 429 is retried after its {@code Retry-After}.
+ * Latencies are of successful requests only; the warm-up period is discarded.
+ */
+public final class OverloadLoadTest {
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int HOT_SKUS = 8;
+
+    private OverloadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 800;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        List<String> report = new ArrayList<>();
+        for (boolean admission : new boolean[]{false, true}) {
+            try (BenchmarkDatabase db = BenchmarkDatabase.start(rows,
+                    "spring.main.web-application-type=servlet",
+                    "server.port=0",
+                    "demo.admission.enabled=" + admission)) {
+                report.add(run(admission ? "admission" : "none", db, clients, seconds));
+            }
+        }
+
+        System.out.printf("%d rows, %d concurrent clients, %d s per mode%n", rows, clients, seconds);
+        System.out.printf("%-9s %9s %9s %8s %10s %9s %9s %9s%n",
+                "mode", "ok", "429", "errors", "ok/s", "p50 ms", "p99 ms", "max ms");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, BenchmarkDatabase db, int clients, int seconds) throws Exception {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        ObjectMapper json = new ObjectMapper();
+        String base = "http://localhost:" + db.port() + "/api/";
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureTo = measureFrom + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> workers = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            int customer = 1 + c % db.customers;
+            workers.add(pool.submit(() -> {
+                String token = login(http, json, base, customer);
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < measureTo) {
+                    String order = json.writeValueAsString(Map.of(
+                            "sku", BenchmarkDatabase.sku(ThreadLocalRandom.current().nextInt(HOT_SKUS)),
+                            "status", "ORDERED",
+                            "shippingId", customer,
+                            "customerId", customer,
+                            "orderNumber", String.valueOf(System.nanoTime())));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "add/order"))
+                            .timeout(REQUEST_TIMEOUT)
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", "Bearer " + token)
+                            .POST(HttpRequest.BodyPublishers.ofString(order))
+                            .build();
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response;
+                    try {
+                        response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    } catch (Exception e) {
+                        response = null;
+                    }
+                    long end = System.nanoTime();
+                    boolean measured = start >= measureFrom;
+                    if (response != null && response.statusCode() == 429) {
+                        if (measured) {
+                            rejected.incrementAndGet();
+                        }
+                        long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                        Thread.sleep(Math.min(retryAfter * 1000, Math.max(0, (measureTo - end) / 1_000_000)));
+                        continue;
+                    }
+                    if (!measured) {
+                        continue;
+                    }
+                    if (response == null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = end - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        pool.shutdown();
+        Arrays.sort(all);
+
+        return String.format("%-9s %9d %9d %8d %10.0f %9.1f %9.1f %9.1f",
+                mode, all.length, rejected.get(), errors.get(), all.length / (double) seconds,
+                percentileMillis(all, 0.50), percentileMillis(all, 0.99), percentileMillis(all, 1.0));
+    }
+
+    private static String login(HttpClient http, ObjectMapper json, String base, int customer) throws Exception {
+        String credentials = json.writeValueAsString(Map.of(
+                "userID", BenchmarkDatabase.userId(customer),
+                "userPass", BenchmarkDatabase.userPass(customer)));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(credentials))
+                .build();
+        String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return json.readTree(body).path("token").asText();
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
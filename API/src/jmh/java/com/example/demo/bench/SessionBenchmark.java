@@ -0,0 +1,55 @@
+package com.example.demo.bench;
+
+import com.example.demo.model.Customer;
+import com.example.demo.model.User;
+import com.example.demo.service.ApiService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of identifying the caller of an authenticated request: the credential query plus
+ * customer lookup the UI used to repeat, against resolving a session token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionBenchmark {
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private BenchmarkDatabase db;
+    private ApiService apiService;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(rows);
+        apiService = db.bean(ApiService.class);
+        tokens = new String[db.customers];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = apiService.login(BenchmarkDatabase.userId(i + 1), BenchmarkDatabase.userPass(i + 1)).getToken();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public Customer credentialLookup() {
+        int customerId = 1 + ThreadLocalRandom.current().nextInt(db.customers);
+        User user = apiService.getUserByCreds(BenchmarkDatabase.userId(customerId), BenchmarkDatabase.userPass(customerId));
+        return apiService.getCustomerById(user.getCustomerId());
+    }
+
+    @Benchmark
+    public Customer sessionLookup() {
+        return apiService.getSession(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]).customer();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test comparing Tomcat's platform-thread pool with virtual threads.
+ * Each mode boots the API on a random port over a freshly seeded H2 database, then
+ * {@code clients} callers hit the JDBC-backed {@code /api/ordersByParam?customerId=}
+ * endpoint back to back. Latencies from the warm-up period are discarded.
+ */
+public final class VirtualThreadLoadTest {
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private VirtualThreadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        if (Runtime.version().feature() < 21) {
+            System.out.println("warning: Java " + Runtime.version().feature()
+                    + " ignores spring.threads.virtual.enabled, build and run with -Pjava21");
+        }
+
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (BenchmarkDatabase db = BenchmarkDatabase.start(rows,
+                    "spring.main.web-application-type=servlet",
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + virtual)) {
+                report.add(run(virtual ? "virtual" : "platform", db, clients, seconds));
+            }
+        }
+
+        System.out.printf("%d rows, %d concurrent clients, %d s per mode%n", rows, clients, seconds);
+        System.out.printf("%-9s %10s %8s %10s %9s %9s %9s %9s%n",
+                "mode", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, BenchmarkDatabase db, int clients, int seconds) throws Exception {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        String base = "http://localhost:" + db.port() + "/api/ordersByParam?customerId=";
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureTo = measureFrom + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> workers = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            workers.add(pool.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < measureTo) {
+                    int customer = 1 + ThreadLocalRandom.current().nextInt(db.customers);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + customer))
+                            .timeout(REQUEST_TIMEOUT)
+                            .build();
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long end = System.nanoTime();
+                    if (start < measureFrom) {
+                        continue;
+                    }
+                    if (!ok) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = end - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        pool.shutdown();
+        Arrays.sort(all);
+
+        return String.format("%-9s %10d %8d %10.0f %9.1f %9.1f %9.1f %9.1f",
+                mode, all.length, errors.get(), all.length / (double) seconds,
+                percentileMillis(all, 0.50), percentileMillis(all, 0.95),
+                percentileMillis(all, 0.99), percentileMillis(all, 1.0));
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
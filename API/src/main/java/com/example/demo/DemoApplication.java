@@ -1,16 +1,12 @@
 package com.example.demo;
 
-import com.example.demo.controller.Controller;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
-import org.springframework.context.annotation.ComponentScan;
 
 
-@ComponentScan(basePackages = {"com.example.demo"})
-@ComponentScan(basePackageClasses = Controller.class)
 @SpringBootApplication()
 public class DemoApplication {
 
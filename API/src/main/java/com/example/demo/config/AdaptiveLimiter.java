@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit tuned by additive increase, multiplicative decrease. While requests
+ * finish within {@code targetLatency} and the limit is at least half used, it grows by one
+ * per limit's worth of completions; a slow or failed request cuts it by {@code backoff}.
+ * Only requests admitted after the last cut can cut it again, so one burst of slow
+ * responses backs off once rather than once per response.
+ */
+final class AdaptiveLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoff;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private boolean decreased;
+    private long lastDecrease;
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos, double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoff = backoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Frees a slot taken by {@link #tryAcquire()} for a request that ran from {@code start} to {@code end}. */
+    synchronized void release(long start, long end, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        if (failed || end - start > targetLatencyNanos) {
+            if (!decreased || start - lastDecrease > 0) {
+                limit = Math.max(minLimit, limit * backoff);
+                decreased = true;
+                lastDecrease = end;
+            }
+        } else if (current * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a write request may run now. Each client first needs a token from its own
+ * bucket ({@code client-rate} per second, up to {@code client-burst}), then a slot under the
+ * {@link AdaptiveLimiter}, whose limit follows the latency of admitted requests. A request
+ * that gets neither is turned away at once rather than queued on a Tomcat thread or a
+ * connection pool.
+ * <p>
+ * Admin edits have their own buckets ({@code admin.client-rate}, {@code admin.client-burst})
+ * and a fixed {@code admin.max-concurrency}, sized to the admin connection pool, so a burst
+ * of storefront writes cannot lock the admin out and a large batch edit, whose latency says
+ * nothing about overload, never shrinks the storefront limit.
+ */
+@Component
+public class AdmissionControl {
+    private final boolean enabled;
+    private final Map<WorkloadClass, Lane> lanes = new EnumMap<>(WorkloadClass.class);
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${demo.admission.enabled:false}") boolean enabled,
+                            @Value("${demo.admission.initial-limit:20}") int initialLimit,
+                            @Value("${demo.admission.min-limit:4}") int minLimit,
+                            @Value("${demo.admission.max-limit:200}") int maxLimit,
+                            @Value("${demo.admission.target-latency:250ms}") Duration targetLatency,
+                            @Value("${demo.admission.backoff:0.9}") double backoff,
+                            @Value("${demo.admission.client-rate:20}") double clientRate,
+                            @Value("${demo.admission.client-burst:40}") int clientBurst,
+                            @Value("${demo.admission.max-clients:100000}") int maxClients,
+                            @Value("${demo.admission.admin.client-rate:10}") double adminClientRate,
+                            @Value("${demo.admission.admin.client-burst:100}") int adminClientBurst,
+                            @Value("${demo.admission.admin.max-concurrency:4}") int adminMaxConcurrency) {
+        this.enabled = enabled;
+        lanes.put(WorkloadClass.STOREFRONT, new Lane(meterRegistry, WorkloadClass.STOREFRONT,
+                new AdaptiveLimiter(initialLimit, minLimit, maxLimit, targetLatency.toNanos(), backoff),
+                new TokenBuckets(clientRate, clientBurst, maxClients)));
+        lanes.put(WorkloadClass.ADMIN, new Lane(meterRegistry, WorkloadClass.ADMIN,
+                new AdaptiveLimiter(adminMaxConcurrency, adminMaxConcurrency, adminMaxConcurrency,
+                        targetLatency.toNanos(), backoff),
+                new TokenBuckets(adminClientRate, adminClientBurst, maxClients)));
+    }
+
+    /**
+     * Admits a {@code workload} request from {@code client}, returning 0, or returns how many
+     * seconds the client should wait before retrying. An admitted request must be passed to
+     * {@link #release}. Only {@link WorkloadClass#STOREFRONT} and {@link WorkloadClass#ADMIN}
+     * have limits; other classes are always admitted.
+     */
+    public long admit(WorkloadClass workload, String client) {
+        Lane lane = lanes.get(workload);
+        if (!enabled || lane == null) {
+            return 0;
+        }
+        long wait = lane.buckets.tryTake(client, System.nanoTime());
+        if (wait > 0) {
+            lane.rateLimited.increment();
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+        if (!lane.limiter.tryAcquire()) {
+            lane.limited.increment();
+            return 1;
+        }
+        return 0;
+    }
+
+    /** Ends an admitted {@code workload} request that started at {@code start} ({@link System#nanoTime()}). */
+    public void release(WorkloadClass workload, long start, boolean failed) {
+        Lane lane = lanes.get(workload);
+        if (enabled && lane != null) {
+            lane.limiter.release(start, System.nanoTime(), failed);
+        }
+    }
+
+    private static final class Lane {
+        private final AdaptiveLimiter limiter;
+        private final TokenBuckets buckets;
+        private final Counter rateLimited;
+        private final Counter limited;
+
+        Lane(MeterRegistry meterRegistry, WorkloadClass workload, AdaptiveLimiter limiter, TokenBuckets buckets) {
+            this.limiter = limiter;
+            this.buckets = buckets;
+            String tag = workload.name().toLowerCase(Locale.ROOT);
+            this.rateLimited = Counter.builder("admission.rejected")
+                    .description("Write requests turned away with a 429")
+                    .tag("workload", tag)
+                    .tag("reason", "client_rate")
+                    .register(meterRegistry);
+            this.limited = Counter.builder("admission.rejected")
+                    .description("Write requests turned away with a 429")
+                    .tag("workload", tag)
+                    .tag("reason", "concurrency")
+                    .register(meterRegistry);
+            Gauge.builder("admission.limit", limiter, AdaptiveLimiter::getLimit)
+                    .description("Write requests allowed to run at once")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            Gauge.builder("admission.in.flight", limiter, AdaptiveLimiter::getInFlight)
+                    .description("Write requests running")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+        }
+    }
+}
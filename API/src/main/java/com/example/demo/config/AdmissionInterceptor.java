@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import com.example.demo.service.ApiService;
+import com.example.demo.service.SessionStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link AdmissionControl} to the write endpoints of one {@link WorkloadClass}. Requests are counted per logged-in
+ * customer when they carry a session token and per remote address otherwise; rejected ones
+ * get a 429 with {@code Retry-After}. Behind a proxy the remote address is the proxy's unless
+ * {@code server.forward-headers-strategy} is set.
+ */
+class AdmissionInterceptor implements HandlerInterceptor {
+    private static final String STARTED = AdmissionInterceptor.class.getName() + ".started";
+
+    private final AdmissionControl admissionControl;
+    private final ApiService apiService;
+    private final WorkloadClass workload;
+
+    AdmissionInterceptor(AdmissionControl admissionControl, ApiService apiService, WorkloadClass workload) {
+        this.admissionControl = admissionControl;
+        this.apiService = apiService;
+        this.workload = workload;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        long retryAfter = admissionControl.admit(workload, client(request));
+        if (retryAfter > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many write requests, retry later");
+            return false;
+        }
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(STARTED) instanceof Long start) {
+            request.removeAttribute(STARTED);
+            admissionControl.release(workload, start, ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            SessionStore.Session session = apiService.getSession(authorization.substring(7).trim());
+            if (session != null) {
+                return "customer:" + session.customerId();
+            }
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+}
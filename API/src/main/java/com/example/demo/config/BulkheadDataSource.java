@@ -0,0 +1,83 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.BulkheadFullException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections from one pool per {@link WorkloadClass}. At most
+ * {@code queueCapacity} callers may wait on a pool; beyond that a request is rejected at
+ * once with {@link BulkheadFullException} (503) instead of queueing behind the others.
+ * Pool wait times are published by Hikari as {@code hikaricp.connections.acquire}.
+ */
+public class BulkheadDataSource extends AbstractDataSource implements Closeable {
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    public BulkheadDataSource(Map<WorkloadClass, HikariDataSource> pools, Map<WorkloadClass, Integer> queueCapacities,
+                              MeterRegistry meterRegistry) {
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            bulkheads.put(workload, new Bulkhead(workload.poolName(), pools.get(workload),
+                    queueCapacities.get(workload), meterRegistry));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return bulkheads.get(WorkloadClass.current()).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Override
+    public void close() {
+        bulkheads.values().forEach(bulkhead -> bulkhead.pool.close());
+    }
+
+    private static final class Bulkhead {
+        private final String name;
+        private final HikariDataSource pool;
+        private final int queueCapacity;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Counter rejected;
+
+        Bulkhead(String name, HikariDataSource pool, int queueCapacity, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.pool = pool;
+            this.queueCapacity = queueCapacity;
+            this.rejected = Counter.builder("bulkhead.rejected")
+                    .description("Connection requests rejected because too many were already waiting")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.waiting", waiting, AtomicInteger::get)
+                    .description("Callers waiting for a connection")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        }
+
+        Connection getConnection() throws SQLException {
+            if (waiting.incrementAndGet() > queueCapacity) {
+                waiting.decrementAndGet();
+                rejected.increment();
+                throw new BulkheadFullException(name);
+            }
+            try {
+                return pool.getConnection();
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+}
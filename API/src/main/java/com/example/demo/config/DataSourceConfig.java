@@ -0,0 +1,88 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Builds the application datasource from {@code spring.datasource}: a single pool, or with
+ * {@code demo.bulkhead.enabled=true} one pool per {@link WorkloadClass} (sized by
+ * {@code demo.bulkhead.<class>.*}), plus a read replica in front of them once
+ * {@code demo.datasource.replica.url} is set. The replica reuses the primary's credentials
+ * unless given its own.
+ * <p>
+ * Defining this bean turns off Spring Boot's own pool, so {@code spring.datasource.hikari.*}
+ * is bound onto every pool here; the bulkhead and replica settings are applied on top of it.
+ */
+@Configuration
+public class DataSourceConfig {
+    static final String POSTGRES_LAG_QUERY = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSource primary = binder.bind("demo.bulkhead.enabled", Boolean.class).orElse(false)
+                ? bulkheads(properties, meterRegistry, binder)
+                : pool(properties, "primary", meterRegistry, binder);
+        String replicaUrl = binder.bind("demo.datasource.replica.url", String.class).orElse(null);
+        if (replicaUrl == null) {
+            return primary;
+        }
+
+        String prefix = "demo.datasource.replica.";
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(binder.bind(prefix + "username", String.class).orElse(properties.getUsername()));
+        replica.setPassword(binder.bind(prefix + "password", String.class).orElse(properties.getPassword()));
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(binder.bind(prefix + "maximum-pool-size", Integer.class)
+                .orElse(replica.getMaximumPoolSize()));
+        replica.setReadOnly(true);
+        replica.setMetricRegistry(meterRegistry);
+        return new ReadReplicaDataSource(primary, replica, meterRegistry,
+                binder.bind(prefix + "lag-query", String.class).orElse(POSTGRES_LAG_QUERY),
+                binder.bind(prefix + "max-lag", Duration.class).orElse(Duration.ofSeconds(5)),
+                binder.bind(prefix + "check-interval", Duration.class).orElse(Duration.ofSeconds(5)));
+    }
+
+    private static BulkheadDataSource bulkheads(DataSourceProperties properties, MeterRegistry meterRegistry, Binder binder) {
+        Map<WorkloadClass, HikariDataSource> pools = new EnumMap<>(WorkloadClass.class);
+        Map<WorkloadClass, Integer> queueCapacities = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            String prefix = "demo.bulkhead." + workload.poolName() + ".";
+            HikariDataSource pool = pool(properties, workload.poolName(), meterRegistry, binder);
+            pool.setPoolName(workload.poolName());
+            pool.setMaximumPoolSize(binder.bind(prefix + "maximum-pool-size", Integer.class)
+                    .orElse(workload.getDefaultPoolSize()));
+            pool.setConnectionTimeout(binder.bind(prefix + "connection-timeout", Duration.class)
+                    .orElseGet(() -> binder.bind("spring.datasource.hikari.connection-timeout", Duration.class)
+                            .orElse(Duration.ofSeconds(5))).toMillis());
+            pools.put(workload, pool);
+            queueCapacities.put(workload, binder.bind(prefix + "queue-capacity", Integer.class)
+                    .orElse(workload.getDefaultQueueCapacity()));
+        }
+        return new BulkheadDataSource(pools, queueCapacities, meterRegistry);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name, MeterRegistry meterRegistry,
+                                         Binder binder) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Connections
+ * are fetched lazily at the first statement, once the transaction has marked them read-only,
+ * so {@code @Transactional(readOnly = true)} is all a caller needs.
+ * <p>
+ * The replica's replay lag is measured every {@code checkInterval}. While the replica is
+ * unreachable or more than {@code maxLag} behind, reads fall back to the primary; a failed
+ * replica connection also falls back and marks the replica unavailable until the next
+ * successful check.
+ */
+@Slf4j
+public class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final Counter fallbacks;
+    private final ScheduledExecutorService checker;
+    private volatile boolean replicaAvailable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReadReplicaDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry,
+                                 String lagQuery, Duration maxLag, Duration checkInterval) {
+        super(primary);
+        this.primary = primary;
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        setReadOnlyDataSource(new ReplicaOrPrimary());
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only connections served by the primary because the replica was unavailable")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, ds -> ds.replicaAvailable ? 1 : 0)
+                .description("Whether read-only transactions are sent to the replica")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.lag", this, ds -> ds.lagSeconds)
+                .description("Replica replay lag at the last check")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs {@code work} with read-only transactions sent to the primary, for reads that must
+     * see every committed write, such as rebuilding a cache.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        checker.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    void check() {
+        boolean available;
+        try (Connection con = replica.getConnection();
+             Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            available = lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (SQLException e) {
+            log.debug("Replica check failed", e);
+            lagSeconds = Double.NaN;
+            available = false;
+        }
+        if (available != replicaAvailable) {
+            if (available) {
+                log.info("Replica is available, routing read-only transactions to it");
+            } else if (Double.isNaN(lagSeconds)) {
+                log.warn("Replica is unreachable, routing reads to the primary");
+            } else {
+                log.warn("Replica is {} s behind, routing reads to the primary", lagSeconds);
+            }
+            replicaAvailable = available;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        checker.shutdownNow();
+        for (DataSource pool : new DataSource[]{replica, primary}) {
+            if (pool instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private final class ReplicaOrPrimary extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (PRIMARY_ONLY.get() != null) {
+                return primary.getConnection();
+            }
+            if (replicaAvailable) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    log.warn("Replica connection failed, routing reads to the primary until the next check", e);
+                    replicaAvailable = false;
+                }
+            }
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One token bucket per client, refilled at {@code ratePerSecond} up to {@code burst}. A full
+ * bucket behaves like a missing one, so once more than {@code maxClients} buckets are held,
+ * full ones are dropped (at most once a second) to keep memory bounded.
+ */
+final class TokenBuckets {
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final double nanosPerToken;
+    private final double burst;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile long lastSweep;
+
+    TokenBuckets(double ratePerSecond, int burst, int maxClients) {
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        this.burst = burst;
+        this.maxClients = maxClients;
+    }
+
+    /** Takes a token for {@code client}; returns 0 if one was available, otherwise the nanoseconds until the next. */
+    long tryTake(String client, long now) {
+        Bucket bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients && now - lastSweep > SWEEP_INTERVAL) {
+                lastSweep = now;
+                buckets.values().removeIf(b -> b.isFull(now));
+            }
+            bucket = buckets.computeIfAbsent(client, c -> new Bucket(now));
+        }
+        return bucket.tryTake(now);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private final class Bucket {
+        private double tokens = burst;
+        private long refilled;
+
+        Bucket(long now) {
+            this.refilled = now;
+        }
+
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            if (now - refilled > 0) {
+                tokens = Math.min(burst, tokens + (now - refilled) / nanosPerToken);
+                refilled = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import com.example.demo.service.ApiService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private ApiService apiService;
+
+    /**
+     * Storefront writes and admin edits, each against its own limits. Product imports are single
+     * long uploads whose latency would read as overload, so they are not checked.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionInterceptor(admissionControl, apiService, WorkloadClass.STOREFRONT))
+                .addPathPatterns("/api/add/**", "/api/checkout");
+        registry.addInterceptor(new AdmissionInterceptor(admissionControl, apiService, WorkloadClass.ADMIN))
+                .addPathPatterns("/api/update/**");
+    }
+}
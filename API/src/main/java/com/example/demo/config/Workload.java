@@ -0,0 +1,14 @@
+package com.example.demo.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs the annotated method, or every method of the annotated class, in the given
+ * {@link WorkloadClass}. A method annotation overrides the class annotation.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+    WorkloadClass value();
+}
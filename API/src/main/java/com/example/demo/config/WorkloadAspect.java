@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets the {@link WorkloadClass} around {@link Workload} methods. Runs before the
+ * transaction interceptor so the transaction's connection comes from the right pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+    @Around("@within(com.example.demo.config.Workload) || @annotation(com.example.demo.config.Workload)")
+    public Object inWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Workload.class);
+        }
+        if (workload == null) {
+            return joinPoint.proceed();
+        }
+        try (WorkloadClass.Scope scope = workload.value().enter()) {
+            return joinPoint.proceed();
+        }
+    }
+}
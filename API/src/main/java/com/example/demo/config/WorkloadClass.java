@@ -0,0 +1,60 @@
+package com.example.demo.config;
+
+import java.util.Locale;
+
+/**
+ * Traffic classes that each get their own connection pool, so a burst in one cannot take
+ * the connections another needs. The class of the current thread is set by
+ * {@link Workload} on service methods or by {@link #enter()}; threads without one use
+ * {@link #STOREFRONT}.
+ */
+public enum WorkloadClass {
+    STOREFRONT(10, 50),
+    CHECKOUT(10, 100),
+    ADMIN(4, 8);
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private final int defaultPoolSize;
+    private final int defaultQueueCapacity;
+
+    WorkloadClass(int defaultPoolSize, int defaultQueueCapacity) {
+        this.defaultPoolSize = defaultPoolSize;
+        this.defaultQueueCapacity = defaultQueueCapacity;
+    }
+
+    public static WorkloadClass current() {
+        WorkloadClass current = CURRENT.get();
+        return current == null ? STOREFRONT : current;
+    }
+
+    /** Makes this the current thread's class until the returned scope is closed. */
+    public Scope enter() {
+        WorkloadClass previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public String poolName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    int getDefaultPoolSize() {
+        return defaultPoolSize;
+    }
+
+    int getDefaultQueueCapacity() {
+        return defaultQueueCapacity;
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -1,13 +1,36 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.*;
+import com.example.demo.model.request.CheckoutRequest;
+import com.example.demo.model.request.ProductFilter;
+import com.example.demo.model.response.AdminOrderRow;
+import com.example.demo.model.response.BatchUpdateResponse;
+import com.example.demo.model.response.CheckoutResponse;
+import com.example.demo.model.response.CustomerBootstrap;
+import com.example.demo.model.response.FacetedSearchResponse;
+import com.example.demo.model.response.ImportResponse;
+import com.example.demo.model.response.LoginResponse;
+import com.example.demo.model.response.OrderStatsResponse;
+import com.example.demo.model.response.OrderSummary;
+import com.example.demo.model.response.PageResponse;
+import com.example.demo.model.response.ProductGroup;
 import com.example.demo.model.response.Response;
+import com.example.demo.model.response.StatsCheckResponse;
+import com.example.demo.model.response.VariantMatrix;
 import com.example.demo.service.ApiService;
+import com.example.demo.service.CatalogPayload;
+import com.example.demo.service.RowFormat;
+import com.example.demo.service.SessionStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,51 +38,157 @@ import java.util.List;
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class Controller {
+    private static final String INSTANCE_ID = Long.toString(System.currentTimeMillis(), 36);
+
     @Autowired
     private ApiService apiService;
 
     @PostMapping("/login")
-    public ResponseEntity<Response> login(@RequestBody User user) {
-        User customer = apiService.getUserByCreds(user.getUserID(), user.getUserPass());
-        Response response = new Response();
-        response.setMessage(String.valueOf(customer.getCustomerId()));
+    public ResponseEntity<LoginResponse> login(@RequestBody User user) {
+        LoginResponse response = apiService.login(user.getUserID(), user.getUserPass());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/session")
+    public ResponseEntity<Customer> getSession(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        SessionStore.Session session = apiService.getSession(bearerToken(authorization));
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return new ResponseEntity<>(session.customer(), HttpStatus.OK);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Response> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        Response response = apiService.logout(bearerToken(authorization));
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @GetMapping("/products")
-    public ResponseEntity<List<Product>> getProducts() {
-        List<Product> productList = apiService.getAllProduct();
-        return new ResponseEntity<>(productList, HttpStatus.OK);
+    public ResponseEntity<byte[]> getProducts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String resource = gzip ? "catalog-gzip" : "catalog";
+        String etag = etag(resource, apiService.getCatalogVersion());
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        CatalogPayload payload = apiService.getCatalogPayload();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag(resource, payload.getVersion()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
+    }
+
+    @GetMapping("/products/page")
+    public ResponseEntity<PageResponse<Product>> getProductPage(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        PageResponse<Product> page = apiService.getProductPage(after, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Filters the catalog by {@code size} and {@code color} (repeatable), {@code minPrice},
+     * {@code maxPrice} and {@code inStock}, paged by SKU with {@code after} and {@code limit}.
+     */
+    @GetMapping("/products/search")
+    public ResponseEntity<FacetedSearchResponse> searchCatalog(
+            ProductFilter filter,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = etag("catalog", apiService.getCatalogVersion());
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(apiService.searchCatalog(filter));
     }
 
     @GetMapping("/customer")
     public ResponseEntity<Customer> getCustomer(
-            @RequestParam(value = "customerID") Integer customerId
+            @RequestParam(value = "customerID") Integer customerId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
     ) {
-        Customer customer = apiService.getCustomerById(customerId);
-        return new ResponseEntity<>(customer, HttpStatus.OK);
+        String etag = etag("customer-" + customerId, apiService.getCustomerVersion(customerId));
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        SessionStore.Session session = apiService.getSession(bearerToken(authorization));
+        Customer customer = session != null && customerId.equals(session.customerId())
+                ? session.customer()
+                : apiService.getCustomerById(customerId);
+        return ResponseEntity.ok().eTag(etag).body(customer);
+    }
+
+    @GetMapping("/customer/{id}/bootstrap")
+    public ResponseEntity<CustomerBootstrap> getCustomerBootstrap(
+            @PathVariable("id") Integer customerId,
+            @RequestParam(value = "orders", required = false) Integer recentOrders,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        CustomerBootstrap bootstrap = apiService.getCustomerBootstrap(customerId, recentOrders, bearerToken(authorization));
+        return new ResponseEntity<>(bootstrap, HttpStatus.OK);
     }
 
     @GetMapping("/product")
     public ResponseEntity<Product> getProduct(
             @RequestParam(value = "sku", required = false) String sku,
-            @RequestParam(value = "productName", required = false) String productName
+            @RequestParam(value = "productName", required = false) String productName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        Product product = new Product(); 
+        String etag = etag("catalog", apiService.getCatalogVersion());
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Product product = new Product();
         if (sku != null && !sku.isBlank()) {
             Integer skuAsNum = Integer.parseInt(sku);
             product = apiService.getProductBySku(skuAsNum);
         } else if (!productName.isBlank()) {
             product = apiService.getProductByProductName(productName);
         }
-        return new ResponseEntity<>(product, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).body(product);
     }
 
+    @GetMapping("/product/search")
+    public ResponseEntity<List<ProductGroup>> searchProducts(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = etag("catalog", apiService.getCatalogVersion());
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(apiService.searchProducts(query, limit));
+    }
+
+    /**
+     * {@code status=*} returns one page of the order table, oldest first; pass the last
+     * {@code orderSk} as {@code after} for the next one, or use {@code /ordersByParam/page}.
+     */
     @GetMapping("/ordersByParam")
     public ResponseEntity<List<Order>> getOrders(
             @RequestParam(value = "customerId", required = false) String customerId,
             @RequestParam(value = "sku", required = false) String sku,
-            @RequestParam(value = "status", required = false) String status
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit
     ) {
         List<Order> orders = new ArrayList<Order>();
         if (customerId != null && !customerId.isBlank()) {
@@ -70,7 +199,7 @@ public class Controller {
             orders = apiService.getOrdersBySku(skuAsNum);
         } else if (!status.isBlank()) {
             if (status.equals("*")) {
-                orders = apiService.getAllOrders();
+                orders = apiService.getOrderPage(null, null, after, limit).getItems();
             } else {
                 orders = apiService.getOrdersByStatus(status);
             }
@@ -78,12 +207,116 @@ public class Controller {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    @GetMapping("/ordersByParam/page")
+    public ResponseEntity<PageResponse<Order>> getOrderPage(
+            @RequestParam(value = "customerId", required = false) Integer customerId,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        PageResponse<Order> page = apiService.getOrderPage(customerId, status, after, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/order/{orderNumber}")
+    public ResponseEntity<OrderSummary> getOrder(
+            @PathVariable("orderNumber") String orderNumber,
+            @RequestParam(value = "customerId", required = false) Integer customerId
+    ) {
+        OrderSummary order = apiService.getOrder(orderNumber, customerId);
+        return new ResponseEntity<>(order, HttpStatus.OK);
+    }
+
+    @GetMapping("/customer/{id}/orders")
+    public ResponseEntity<PageResponse<OrderSummary>> getOrderHistory(
+            @PathVariable("id") Integer customerId,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        PageResponse<OrderSummary> page = apiService.getOrderHistory(customerId, after, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/orders")
+    public ResponseEntity<PageResponse<AdminOrderRow>> getAdminOrders(
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        PageResponse<AdminOrderRow> page = apiService.getAdminOrderPage(status, sort, after, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/export/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) Integer from,
+            @RequestParam(value = "to", required = false) Integer to
+    ) {
+        RowFormat rowFormat = exportFormat(format);
+        return ResponseEntity.ok()
+                .contentType(rowFormat.getMediaType())
+                .body(apiService.exportOrders(rowFormat, status, from, to));
+    }
+
+    @GetMapping("/export/customers")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "from", required = false) Integer from,
+            @RequestParam(value = "to", required = false) Integer to
+    ) {
+        RowFormat rowFormat = exportFormat(format);
+        return ResponseEntity.ok()
+                .contentType(rowFormat.getMediaType())
+                .body(apiService.exportCustomers(rowFormat, from, to));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsResponse> getStats(
+            @RequestParam(value = "top", required = false) Integer top
+    ) {
+        OrderStatsResponse stats = apiService.getOrderStats(top);
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/sku")
+    public ResponseEntity<Response> getSkuStats(
+            @RequestParam(value = "sku") Integer sku
+    ) {
+        Response response = new Response();
+        response.setMessage(String.valueOf(apiService.getUnitsForSku(sku)));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/check")
+    public ResponseEntity<StatsCheckResponse> checkStats() {
+        StatsCheckResponse response = apiService.checkOrderStats();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/stats/reseed")
+    public ResponseEntity<Response> reseedStats() {
+        Response response = apiService.reseedOrderStats();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PostMapping("/add/product")
     public ResponseEntity<Response> addProduct(@RequestBody Product product) {
         Response response = apiService.addProduct(product);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PostMapping(value = "/import/products", consumes = {"text/csv", "application/x-ndjson", "application/ndjson"})
+    public ResponseEntity<ImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        ImportResponse resp = apiService.importProducts(body, contentType);
+        return new ResponseEntity<>(resp, HttpStatus.OK);
+    }
+
     @PostMapping("/add/user")
     public ResponseEntity<Response> addProduct(@RequestBody User user) {
         Response response = apiService.addUser(user);
@@ -106,6 +339,14 @@ public class Controller {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/product/variants")
+    public ResponseEntity<VariantMatrix> getVariants(
+            @RequestParam String name
+    ) {
+        VariantMatrix matrix = apiService.getVariantMatrix(name);
+        return new ResponseEntity<>(matrix, HttpStatus.OK);
+    }
+
     @PostMapping("/add/payment")
     public ResponseEntity<Response> addPayment(
             @RequestBody Payment request
@@ -130,6 +371,14 @@ public class Controller {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PostMapping("/checkout")
+    public ResponseEntity<CheckoutResponse> checkout(
+            @RequestBody CheckoutRequest request
+    ) {
+        CheckoutResponse response = apiService.checkout(request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("/customers")
     public ResponseEntity<List<Customer>> getCustomers() {
         List<Customer> customerList = apiService.getAllCustomer();
@@ -138,10 +387,15 @@ public class Controller {
 
     @GetMapping("/shippingAddressByCustomerId")
     public ResponseEntity<Shipping> getShippingAddressByCustomerId(
-            @RequestParam (value = "customerID") Integer customerID
+            @RequestParam (value = "customerID") Integer customerID,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+        String etag = etag("shipping-" + customerID, apiService.getCustomerVersion(customerID));
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         Shipping resp = apiService.getShippingAddressesByCustomerId(customerID).get(0);
-        return new ResponseEntity<>(resp, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).body(resp);
     }
 
     @PostMapping("/update/product")
@@ -159,4 +413,72 @@ public class Controller {
         Response resp = apiService.updateOrder(order);
         return new ResponseEntity<>(resp, HttpStatus.OK);
     }
-}
+
+    @PostMapping("/update/products")
+    public ResponseEntity<BatchUpdateResponse> updateProducts(
+            @RequestBody List<Product> products
+    ) {
+        BatchUpdateResponse resp = apiService.updateProducts(products);
+        return new ResponseEntity<>(resp, HttpStatus.OK);
+    }
+
+    @PostMapping("/update/orders")
+    public ResponseEntity<BatchUpdateResponse> updateOrders(
+            @RequestBody List<Order> orders
+    ) {
+        BatchUpdateResponse resp = apiService.updateOrders(orders);
+        return new ResponseEntity<>(resp, HttpStatus.OK);
+    }
+
+    private static String etag(String resource, long version) {
+        return "\"" + resource + "-" + INSTANCE_ID + "-" + version + "\"";
+    }
+
+    private static RowFormat exportFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return RowFormat.NDJSON;
+        }
+        RowFormat rowFormat = RowFormat.forName(format);
+        if (rowFormat == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        }
+        return rowFormat;
+    }
+
+    private static String bearerToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return authorization.substring(7).trim();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.demo.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.sql.SQLTransientConnectionException;
+
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends SQLTransientConnectionException {
+    private final String pool;
+
+    public BulkheadFullException(String pool) {
+        super("too many requests waiting for a " + pool + " connection");
+        this.pool = pool;
+    }
+}
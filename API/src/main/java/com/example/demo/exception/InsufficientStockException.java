@@ -0,0 +1,16 @@
+package com.example.demo.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+    private final Integer sku;
+
+    public InsufficientStockException(Integer sku) {
+        super("insufficient stock for sku " + sku);
+        this.sku = sku;
+    }
+}
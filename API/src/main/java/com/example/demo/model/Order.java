@@ -11,7 +11,8 @@ import lombok.Setter;
 @Entity
 @Table(name = "order", schema = "seis739finalschema")
 public class Order {
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_tracking_number_seq", schema = "seis739finalschema", allocationSize = 50)
     @Id
     @Column(name = "tracking_number")
     private Integer orderSk;
@@ -11,7 +11,8 @@ import lombok.Setter;
 @Entity
 @Table(name="payment", schema="seis739finalschema")
 public class Payment {
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_payment_sk_seq", schema = "seis739finalschema", allocationSize = 50)
     @Id
     @Column(name = "payment_sk")
     private Integer paymentId;
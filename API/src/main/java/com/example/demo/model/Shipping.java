@@ -11,7 +11,8 @@ import lombok.Setter;
 @Entity
 @Table(name="shipping", schema="seis739finalschema")
 public class Shipping {
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator = "shipping_seq")
+    @SequenceGenerator(name = "shipping_seq", sequenceName = "shipping_shipping_sk_seq", schema = "seis739finalschema", allocationSize = 50)
     @Id
     @Column(name = "shipping_sk")
     private Integer shippingId;
@@ -11,7 +11,8 @@ import lombok.Setter;
 @Entity
 @Table(name = "user", schema = "seis739finalschema")
 public class User {
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_customer_sk_seq", schema = "seis739finalschema", allocationSize = 50)
     @Id
     @Column(name = "customer_sk")
     private Integer customerId;
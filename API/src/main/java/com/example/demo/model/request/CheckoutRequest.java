@@ -0,0 +1,21 @@
+package com.example.demo.model.request;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.Payment;
+import com.example.demo.model.Shipping;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CheckoutRequest {
+    private Integer customerId;
+    private String orderNumber;
+    private Payment payment;
+    private Shipping shipping;
+    private List<Order> lines;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.model.request;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductFilter {
+    private List<String> size;
+    private List<String> color;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean inStock;
+    private Integer after;
+    private Integer limit;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** One order joined with its customer's name and its shipping address, for the admin order table. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminOrderRow {
+    private Integer orderSk;
+    private String orderNumber;
+    private String status;
+    private Integer sku;
+    private Integer customerId;
+    private String firstName;
+    private String lastName;
+    private String emailAddress;
+    private Integer shippingId;
+    private String addressLine1;
+    private String addressLine2;
+    private String addressLine3;
+    private String city;
+    private String stateAbbr;
+    private String zipCode;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Outcome of one row of a batch update, in request order: "updated", "not_found" or "invalid". */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRowResult {
+    private Integer id;
+    private String outcome;
+}
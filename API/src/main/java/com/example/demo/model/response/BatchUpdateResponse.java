@@ -0,0 +1,16 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchUpdateResponse extends Response {
+    private int updated;
+    private int failed;
+    private List<BatchRowResult> results;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CheckoutResponse extends Response {
+    private Integer shippingId;
+    private String orderNumber;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.model.response;
+
+import com.example.demo.model.Customer;
+import com.example.demo.model.Order;
+import com.example.demo.model.Shipping;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CustomerBootstrap {
+    private Customer customer;
+    private List<Shipping> shippingAddresses;
+    private List<Order> recentOrders;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.model.response;
+
+import com.example.demo.model.Product;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class FacetedSearchResponse extends PageResponse<Product> {
+    private int total;
+    private Map<String, Integer> sizes;
+    private Map<String, Integer> colors;
+    private int inStock;
+}
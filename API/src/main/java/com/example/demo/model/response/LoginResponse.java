@@ -0,0 +1,12 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class LoginResponse extends Response {
+    private String token;
+}
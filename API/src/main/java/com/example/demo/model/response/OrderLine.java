@@ -0,0 +1,25 @@
+package com.example.demo.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** One order row (cart line) joined with its product. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLine {
+    private String orderNumber;
+    private Integer orderSk;
+    private Integer sku;
+    private String status;
+    private Integer customerId;
+    private Integer shippingId;
+    private String productName;
+    private String size;
+    private String color;
+    private Double price;
+    private Integer productImageId;
+}
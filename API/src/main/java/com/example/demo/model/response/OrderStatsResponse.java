@@ -0,0 +1,17 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderStatsResponse {
+    private boolean seeded;
+    private long totalOrders;
+    private Map<String, Long> ordersByStatus;
+    private Map<Integer, Long> topSkus;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * All lines sharing one order number. {@code status} is the lines' common status, or
+ * {@code MIXED} when they differ; {@code total} sums the current product prices.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderSummary {
+    private String orderNumber;
+    private Integer customerId;
+    private Integer shippingId;
+    private String status;
+    private int itemCount;
+    private double total;
+    private List<OrderLine> lines;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    private Integer nextCursor;
+    private int limit;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductGroup {
+    private String productName;
+    private Integer productImageId;
+    private Double minPrice;
+    private Double maxPrice;
+    private List<String> sizes;
+    private List<String> colors;
+    private List<Integer> skus;
+}
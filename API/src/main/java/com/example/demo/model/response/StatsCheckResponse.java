@@ -0,0 +1,15 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StatsCheckResponse extends Response {
+    private boolean consistent;
+    private List<String> mismatches;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class VariantMatrix {
+    private String productName;
+    private List<String> sizes;
+    private List<String> colors;
+    private Map<String, Map<String, Integer>> skus;
+}
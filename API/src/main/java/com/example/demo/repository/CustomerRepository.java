@@ -4,10 +4,12 @@ import com.example.demo.model.Customer;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Repository
 public interface CustomerRepository extends CrudRepository<Customer, Integer> {
+    @Transactional(readOnly = true)
     @Query("select c from Customer c where customerId = ?1")
     Customer getCustomerByID(Integer customerId);
 }
@@ -2,14 +2,30 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Order;
 import com.example.demo.model.Shipping;
+import com.example.demo.model.response.AdminOrderRow;
+import com.example.demo.model.response.OrderLine;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository  extends CrudRepository<Order, String>{
+    String ADMIN_ORDER_ROW = "select new com.example.demo.model.response.AdminOrderRow("
+            + "o.orderSk, o.orderNumber, o.status, o.sku, o.customerId, c.firstName, c.lastName, c.emailAddress, "
+            + "o.shippingId, s.addressLine1, s.addressLine2, s.addressLine3, s.city, s.stateAbbr, s.zipCode) "
+            + "from Order o left join Customer c on c.customerId = o.customerId "
+            + "left join Shipping s on s.shippingId = o.shippingId ";
+    String ORDER_LINE = "select new com.example.demo.model.response.OrderLine("
+            + "o.orderNumber, o.orderSk, o.sku, o.status, o.customerId, o.shippingId, "
+            + "p.productName, p.size, p.color, p.price, p.productImageId) "
+            + "from Order o left join Product p on p.sku = o.sku ";
+
     @Query("select o from Order o where o.customerId = ?1")
     List<Order> getOrderListByCustomerId(Integer customerId);
 
@@ -19,6 +35,55 @@ public interface OrderRepository  extends CrudRepository<Order, String>{
     @Query("select o from Order o where o.status = ?1")
     List<Order> getOrderListByStatus(String status);
 
+    @Query("select o from Order o where o.orderSk > ?1 order by o.orderSk")
+    List<Order> getOrderPage(Integer after, Pageable page);
+
+    @Query("select o from Order o where o.status = ?1 and o.orderSk > ?2 order by o.orderSk")
+    List<Order> getOrderPageByStatus(String status, Integer after, Pageable page);
+
+    @Query("select o from Order o where o.customerId = ?1 and o.orderSk > ?2 order by o.orderSk")
+    List<Order> getOrderPageByCustomerId(Integer customerId, Integer after, Pageable page);
+
+    @Query("select o from Order o where o.customerId = ?1 order by o.orderSk desc")
+    List<Order> getRecentOrdersByCustomerId(Integer customerId, Pageable page);
+
+    @Query(ADMIN_ORDER_ROW + "where o.orderSk > ?1 order by o.orderSk")
+    List<AdminOrderRow> getAdminOrdersAfter(Integer after, Pageable page);
+
+    @Query(ADMIN_ORDER_ROW + "where o.orderSk < ?1 order by o.orderSk desc")
+    List<AdminOrderRow> getAdminOrdersBefore(Integer before, Pageable page);
+
+    @Query(ADMIN_ORDER_ROW + "where o.status = ?1 and o.orderSk > ?2 order by o.orderSk")
+    List<AdminOrderRow> getAdminOrdersByStatusAfter(String status, Integer after, Pageable page);
+
+    @Query(ADMIN_ORDER_ROW + "where o.status = ?1 and o.orderSk < ?2 order by o.orderSk desc")
+    List<AdminOrderRow> getAdminOrdersByStatusBefore(String status, Integer before, Pageable page);
+
+    @Query(ORDER_LINE + "where o.orderNumber = ?1 order by o.orderSk")
+    List<OrderLine> getOrderLines(String orderNumber);
+
+    @Query(ORDER_LINE + "where o.customerId = ?1 and o.orderNumber in ?2 order by o.orderSk")
+    List<OrderLine> getOrderLinesByCustomerId(Integer customerId, Collection<String> orderNumbers);
+
+    /** A customer's order numbers, newest first, keyed by each order's highest tracking number. */
+    @Query("select o.orderNumber from Order o where o.customerId = ?1 group by o.orderNumber "
+            + "having max(o.orderSk) < ?2 order by max(o.orderSk) desc")
+    List<String> getOrderNumbersByCustomerId(Integer customerId, Integer before, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.orderSk = ?1")
+    Order getOrderForUpdate(Integer orderSk);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.orderSk in ?1 order by o.orderSk")
+    List<Order> getOrdersForUpdate(Collection<Integer> orderSks);
+
+    @Query("select o.status, count(o) from Order o group by o.status")
+    List<Object[]> countOrdersByStatus();
+
+    @Query("select o.sku, count(o) from Order o group by o.sku")
+    List<Object[]> countOrdersBySku();
+
     @Modifying
     @Query("update Order o set o.status = ?1 where o.orderSk = ?2")
     void updateOrder(String status, Integer orderSk);
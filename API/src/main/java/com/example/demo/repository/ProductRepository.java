@@ -1,11 +1,14 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,8 +22,16 @@ public interface ProductRepository extends CrudRepository<Product, String> {
     @Query("select p from Product p where p.productName = ?1 and p.size = ?2 and p.color = ?3")
     Product getSkuByProduct(String productName, String size, String color);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.sku in ?1 order by p.sku")
+    List<Product> getProductsForUpdate(Collection<Integer> skus);
+
     @Modifying
     @Query("update Product p set p.price = ?1, p.quantity = ?2 where p.sku = ?3")
     void updateProduct(Double price, Integer quantity, Integer sku);
 
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity - ?2 where p.sku = ?1 and p.quantity >= ?2")
+    int reserveQuantity(Integer sku, Integer quantity);
+
 }
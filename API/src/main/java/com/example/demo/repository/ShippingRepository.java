@@ -4,11 +4,13 @@ import com.example.demo.model.Shipping;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface ShippingRepository extends CrudRepository<Shipping, String> {
+    @Transactional(readOnly = true)
     @Query("select s from Shipping s where s.customerId = ?1")
     List<Shipping> getShippingAddressListByCustomerId(Integer customerId);
 }
@@ -1,16 +1,61 @@
 package com.example.demo.service;
 
+import com.example.demo.config.ReadReplicaDataSource;
+import com.example.demo.config.Workload;
+import com.example.demo.config.WorkloadClass;
 import com.example.demo.model.*;
+import com.example.demo.model.request.CheckoutRequest;
+import com.example.demo.model.request.ProductFilter;
+import com.example.demo.model.response.AdminOrderRow;
+import com.example.demo.model.response.BatchRowResult;
+import com.example.demo.model.response.BatchUpdateResponse;
+import com.example.demo.model.response.CheckoutResponse;
+import com.example.demo.model.response.CustomerBootstrap;
+import com.example.demo.model.response.FacetedSearchResponse;
+import com.example.demo.model.response.ImportResponse;
+import com.example.demo.model.response.LoginResponse;
+import com.example.demo.model.response.OrderLine;
+import com.example.demo.model.response.OrderStatsResponse;
+import com.example.demo.model.response.OrderSummary;
+import com.example.demo.model.response.PageResponse;
+import com.example.demo.model.response.ProductGroup;
 import com.example.demo.model.response.Response;
+import com.example.demo.model.response.StatsCheckResponse;
+import com.example.demo.model.response.VariantMatrix;
 import com.example.demo.repository.*;
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
+@Slf4j
 @Service
+@Workload(WorkloadClass.STOREFRONT)
 public class ApiService {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_ROWS = 10_000;
+    private static final int LOCK_CHUNK = 1000;
+    private static final int RECENT_ORDERS = 20;
+    private static final int DEFAULT_SEARCH_RESULTS = 10;
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     @Autowired
     private ShippingRepository shippingRepository;
 
@@ -29,45 +74,205 @@ public class ApiService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CustomerVersions customerVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GroupCommitter groupCommitter;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private OrderStats orderStats;
+
+    @Autowired
+    private ProductImporter productImporter;
+
+    @Autowired
+    private RowExporter rowExporter;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
     public List<Product> getAllProduct() {
-        return (List<Product>) productRepository.findAll();
+        return getCatalog().getProducts();
+    }
+
+    public CatalogPayload getCatalogPayload() {
+        return getCatalog().derive(CatalogPayload.class, catalog -> CatalogPayload.of(catalog, objectMapper));
+    }
+
+    public long getCatalogVersion() {
+        return productCatalogCache.getVersion();
+    }
+
+    public long getCustomerVersion(Integer customerId) {
+        return customerVersions.get(customerId);
     }
 
+    private ProductCatalog getCatalog() {
+        return productCatalogCache.get(() -> ReadReplicaDataSource.onPrimary(productRepository::findAll));
+    }
+
+    private static ProductSearchIndex searchIndex(ProductCatalog catalog) {
+        return catalog.derive(ProductSearchIndex.class, ProductSearchIndex::of);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCatalog() {
+        CompletableFuture.runAsync(() -> searchIndex(getCatalog()))
+                .exceptionally(e -> {
+                    log.warn("Product catalog warm-up failed, it will load on first use", e);
+                    return null;
+                });
+    }
+
+    public PageResponse<Product> getProductPage(Integer after, Integer limit) {
+        int pageSize = pageSize(limit);
+        return toPage(getCatalog().getProductsAfter(after, pageSize + 1), pageSize, Product::getSku);
+    }
+
+    /**
+     * Read from the primary: the {@code /customer} ETag comes from {@link CustomerVersions},
+     * which moves on primary commits, and a lagging replica would pin a stale body to it.
+     */
+    @Transactional(readOnly = true)
     public Customer getCustomerById(Integer customerId) {
-        return customerRepository.getCustomerByID(customerId);
+        return ReadReplicaDataSource.onPrimary(() -> customerRepository.getCustomerByID(customerId));
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByCustomerId(Integer customerId) {
         return orderRepository.getOrderListByCustomerId(customerId);
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersBySku(Integer sku) {
         return orderRepository.getOrderListBySKU(sku);
     }
 
     public Product getProductBySku(Integer sku) {
-        return productRepository.getProductBySKU(sku);
+        return getCatalog().getBySku(sku);
+    }
+
+    /** Product groups whose name, size or color words start with the words of {@code query}. */
+    public List<ProductGroup> searchProducts(String query, Integer limit) {
+        int results = limit == null || limit <= 0 ? DEFAULT_SEARCH_RESULTS : Math.min(limit, MAX_SEARCH_RESULTS);
+        ProductCatalog catalog = getCatalog();
+        return searchIndex(catalog).search(catalog, query, results);
+    }
+
+    /** Products filtered by size, color, price range and stock, in SKU order, with facet counts. */
+    public FacetedSearchResponse searchCatalog(ProductFilter filter) {
+        return ColumnarCatalog.of(getCatalog()).search(filter, pageSize(filter.getLimit()));
     }
 
     public Product getProductByProductName(String productName) {
-        return productRepository.getProductByProductName(productName).get(0);
+        List<Product> products = getCatalog().getByProductName(productName);
+        return products.isEmpty() ? null : products.get(0);
     }
 
+    /** Read from the primary for the same reason as {@link #getCustomerById}. */
+    @Transactional(readOnly = true)
     public List<Shipping> getShippingAddressesByCustomerId(Integer customerId) {
-        return shippingRepository.getShippingAddressListByCustomerId(customerId);
+        return ReadReplicaDataSource.onPrimary(() -> shippingRepository.getShippingAddressListByCustomerId(customerId));
+    }
+
+    /**
+     * Loads everything the UI shows after login in one call: the customer and shipping
+     * addresses are queried on the task executor while the newest orders are queried here.
+     * A session for the same customer supplies the customer without a query.
+     */
+    @Transactional(readOnly = true)
+    public CustomerBootstrap getCustomerBootstrap(Integer customerId, Integer recentOrders, String sessionToken) {
+        SessionStore.Session session = sessionStore.get(sessionToken);
+        CompletableFuture<Customer> customer = session != null && customerId.equals(session.customerId())
+                ? CompletableFuture.completedFuture(session.customer())
+                : CompletableFuture.supplyAsync(() -> customerRepository.getCustomerByID(customerId), taskExecutor);
+        CompletableFuture<List<Shipping>> addresses = CompletableFuture.supplyAsync(
+                () -> shippingRepository.getShippingAddressListByCustomerId(customerId), taskExecutor);
+        int limit = recentOrders == null || recentOrders <= 0 ? RECENT_ORDERS : Math.min(recentOrders, MAX_PAGE_SIZE);
+        List<Order> orders = orderRepository.getRecentOrdersByCustomerId(customerId, PageRequest.of(0, limit));
+
+        CustomerBootstrap bootstrap = new CustomerBootstrap();
+        bootstrap.setCustomer(join(customer));
+        if (bootstrap.getCustomer() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "customer " + customerId + " not found");
+        }
+        bootstrap.setShippingAddresses(join(addresses));
+        bootstrap.setRecentOrders(orders);
+        return bootstrap;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     public User getUserByCreds(String user, String pass) {
         return userRepository.getUserByCreds(user, pass);
     }
 
+    public LoginResponse login(String userId, String userPass) {
+        User user = userRepository.getUserByCreds(userId, userPass);
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "invalid credentials");
+        }
+        Customer customer = customerRepository.getCustomerByID(user.getCustomerId());
+        LoginResponse resp = new LoginResponse();
+        resp.setMessage(String.valueOf(user.getCustomerId()));
+        resp.setToken(sessionStore.create(user, customer).token());
+        return resp;
+    }
+
+    public SessionStore.Session getSession(String token) {
+        return sessionStore.get(token);
+    }
+
+    public Response logout(String token) {
+        Response resp = new Response();
+        sessionStore.remove(token);
+        resp.setMessage("success");
+        return resp;
+    }
+
+    @Workload(WorkloadClass.ADMIN)
     public Response addProduct(Product product) {
         Response resp = new Response();
         productRepository.save(product);
+        productCatalogCache.put(product);
+        TransactionHooks.afterCommit(this::warmCatalog);
         resp.setMessage("success");
         return resp;
     }
 
+    @Workload(WorkloadClass.ADMIN)
+    public ImportResponse importProducts(InputStream body, String contentType) {
+        RowFormat format = RowFormat.forContentType(contentType);
+        if (format == null) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "expected text/csv or application/x-ndjson");
+        }
+        return productImporter.importProducts(body, format);
+    }
+
+    @Workload(WorkloadClass.CHECKOUT)
     public Response addUser(User user) {
         Response resp = new Response();
         userRepository.save(user);
@@ -75,67 +280,425 @@ public class ApiService {
         return resp;
     }
 
+    @Workload(WorkloadClass.CHECKOUT)
     public Response addCustomer(Customer customer) {
         Response resp = new Response();
         customerRepository.save(customer);
+        customerVersions.bump(customer.getCustomerId());
+        sessionStore.updateCustomer(customer);
         resp.setMessage(String.valueOf(customer.getCustomerId()));
         return resp;
     }
 
     public Response getSkuByProduct(String name, String size, String color) {
         Response resp = new Response();
-        Product product = productRepository.getSkuByProduct(name, size, color);
+        Product product = getCatalog().getVariant(name, size, color);
         Integer sku = product.getSku();
         resp.setMessage("" + sku);
         return resp;
     }
 
+    public VariantMatrix getVariantMatrix(String productName) {
+        Set<String> sizes = new LinkedHashSet<>();
+        Set<String> colors = new LinkedHashSet<>();
+        Map<String, Map<String, Integer>> skus = new LinkedHashMap<>();
+        for (Product product : getCatalog().getByProductName(productName)) {
+            sizes.add(product.getSize());
+            colors.add(product.getColor());
+            skus.computeIfAbsent(product.getColor(), k -> new LinkedHashMap<>()).put(product.getSize(), product.getSku());
+        }
+        VariantMatrix matrix = new VariantMatrix();
+        matrix.setProductName(productName);
+        matrix.setSizes(new ArrayList<>(sizes));
+        matrix.setColors(new ArrayList<>(colors));
+        matrix.setSkus(skus);
+        return matrix;
+    }
+
+    @Workload(WorkloadClass.CHECKOUT)
     public Response addPayment(Payment paymentRequest) {
         Response  resp = new Response();
-        paymentRepository.save(paymentRequest);
+        Integer requestedId = paymentRequest.getPaymentId();
+        groupCommitter.execute(() -> {
+            paymentRequest.setPaymentId(requestedId);
+            return paymentRepository.save(paymentRequest);
+        });
         resp.setMessage("success");
         return resp;
     }
 
+    @Workload(WorkloadClass.CHECKOUT)
     public Response addShipping(Shipping shippingRequest) {
         Response  resp = new Response();
-        shippingRepository.save(shippingRequest);
+        Integer requestedId = shippingRequest.getShippingId();
+        groupCommitter.execute(() -> {
+            shippingRequest.setShippingId(requestedId);
+            return shippingRepository.save(shippingRequest);
+        });
+        customerVersions.bump(shippingRequest.getCustomerId());
         resp.setMessage("" + shippingRequest.getShippingId());
         return resp;
     }
 
+    @Workload(WorkloadClass.CHECKOUT)
     public Response addOrder(Order orderRequest) {
         Response resp = new Response();
-        orderRepository.save(orderRequest);
+        Integer requestedId = orderRequest.getOrderSk();
+        groupCommitter.execute(() -> {
+            orderRequest.setOrderSk(requestedId);
+            inventoryService.reserve(orderRequest.getSku(), 1);
+            Order saved = orderRepository.save(orderRequest);
+            orderStats.orderPlaced(saved);
+            return saved;
+        });
         resp.setMessage("success");
         return resp;
     }
 
-    public List<Order> getAllOrders() {
-        return (List<Order>) orderRepository.findAll();
+    @Workload(WorkloadClass.CHECKOUT)
+    @Transactional
+    public CheckoutResponse checkout(CheckoutRequest request) {
+        if (request.getPayment() == null || request.getShipping() == null
+                || request.getLines() == null || request.getLines().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "payment, shipping and at least one line are required");
+        }
+        Payment payment = request.getPayment();
+        Shipping shipping = request.getShipping();
+        if (request.getCustomerId() != null) {
+            payment.setCustomerId(request.getCustomerId());
+            shipping.setCustomerId(request.getCustomerId());
+        }
+        Map<Integer, Integer> quantitiesBySku = new HashMap<>();
+        for (Order line : request.getLines()) {
+            quantitiesBySku.merge(line.getSku(), 1, Integer::sum);
+        }
+        inventoryService.reserve(quantitiesBySku);
+        paymentRepository.save(payment);
+        shippingRepository.save(shipping);
+
+        String orderNumber = request.getOrderNumber() != null
+                ? request.getOrderNumber()
+                : String.valueOf(System.currentTimeMillis());
+        for (Order line : request.getLines()) {
+            line.setOrderNumber(orderNumber);
+            line.setShippingId(shipping.getShippingId());
+            line.setCustomerId(shipping.getCustomerId());
+            if (line.getStatus() == null) {
+                line.setStatus("ORDERED");
+            }
+        }
+        orderRepository.saveAll(request.getLines());
+        request.getLines().forEach(orderStats::orderPlaced);
+        customerVersions.bump(shipping.getCustomerId());
+
+        CheckoutResponse resp = new CheckoutResponse();
+        resp.setShippingId(shipping.getShippingId());
+        resp.setOrderNumber(orderNumber);
+        resp.setMessage("success");
+        return resp;
     }
 
+    @Workload(WorkloadClass.ADMIN)
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(String status) {
         return orderRepository.getOrderListByStatus(status);
     }
 
+    /**
+     * Every line of one checkout with its product, from a single query on the order-number
+     * index. Order numbers come from the client clock, so {@code customerId} narrows the
+     * lookup to one customer's order when two checkouts landed on the same millisecond.
+     */
+    @Transactional(readOnly = true)
+    public OrderSummary getOrder(String orderNumber, Integer customerId) {
+        List<OrderLine> lines = customerId == null
+                ? orderRepository.getOrderLines(orderNumber)
+                : orderRepository.getOrderLinesByCustomerId(customerId, List.of(orderNumber));
+        if (lines.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "order " + orderNumber + " not found");
+        }
+        return summarize(orderNumber, lines);
+    }
+
+    /**
+     * A customer's orders grouped by order number, newest first. The cursor is the highest
+     * tracking number of the last order on the page; each page costs one query for the order
+     * numbers and one for their lines.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<OrderSummary> getOrderHistory(Integer customerId, Integer after, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<String> orderNumbers = orderRepository.getOrderNumbersByCustomerId(customerId,
+                after == null ? Integer.MAX_VALUE : after, PageRequest.of(0, pageSize + 1));
+        Map<String, List<OrderLine>> linesByNumber = new LinkedHashMap<>();
+        orderNumbers.forEach(orderNumber -> linesByNumber.put(orderNumber, new ArrayList<>()));
+        if (!orderNumbers.isEmpty()) {
+            for (OrderLine line : orderRepository.getOrderLinesByCustomerId(customerId, orderNumbers)) {
+                linesByNumber.get(line.getOrderNumber()).add(line);
+            }
+        }
+        List<OrderSummary> orders = new ArrayList<>(linesByNumber.size());
+        linesByNumber.forEach((orderNumber, lines) -> orders.add(summarize(orderNumber, lines)));
+        return toPage(orders, pageSize, order -> order.getLines().get(order.getLines().size() - 1).getOrderSk());
+    }
+
+    private static OrderSummary summarize(String orderNumber, List<OrderLine> lines) {
+        OrderLine first = lines.get(0);
+        String status = first.getStatus();
+        double total = 0;
+        for (OrderLine line : lines) {
+            if (!Objects.equals(status, line.getStatus())) {
+                status = "MIXED";
+            }
+            if (line.getPrice() != null) {
+                total += line.getPrice();
+            }
+        }
+        OrderSummary summary = new OrderSummary();
+        summary.setOrderNumber(orderNumber);
+        summary.setCustomerId(first.getCustomerId());
+        summary.setShippingId(first.getShippingId());
+        summary.setStatus(status);
+        summary.setItemCount(lines.size());
+        summary.setTotal(total);
+        summary.setLines(lines);
+        return summary;
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<Order> getOrderPage(Integer customerId, String status, Integer after, Integer limit) {
+        int pageSize = pageSize(limit);
+        int cursor = after == null ? 0 : after;
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<Order> orders;
+        if (customerId != null) {
+            orders = orderRepository.getOrderPageByCustomerId(customerId, cursor, page);
+        } else if (status != null && !status.isBlank() && !status.equals("*")) {
+            orders = orderRepository.getOrderPageByStatus(status, cursor, page);
+        } else {
+            orders = orderRepository.getOrderPage(cursor, page);
+        }
+        return toPage(orders, pageSize, Order::getOrderSk);
+    }
+
+    /**
+     * Admin order table, one joined row per order. Sorted by tracking number, newest first
+     * unless {@code sort} is {@code asc}; {@code after} is the previous page's
+     * {@code nextCursor} in either direction.
+     */
+    @Workload(WorkloadClass.ADMIN)
+    @Transactional(readOnly = true)
+    public PageResponse<AdminOrderRow> getAdminOrderPage(String status, String sort, Integer after, Integer limit) {
+        boolean ascending;
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("desc")) {
+            ascending = false;
+        } else if (sort.equalsIgnoreCase("asc")) {
+            ascending = true;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort must be asc or desc");
+        }
+        int pageSize = pageSize(limit);
+        int cursor = after != null ? after : ascending ? 0 : Integer.MAX_VALUE;
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        boolean allStatuses = status == null || status.isBlank() || status.equals("*");
+        List<AdminOrderRow> rows;
+        if (allStatuses) {
+            rows = ascending
+                    ? orderRepository.getAdminOrdersAfter(cursor, page)
+                    : orderRepository.getAdminOrdersBefore(cursor, page);
+        } else {
+            rows = ascending
+                    ? orderRepository.getAdminOrdersByStatusAfter(status, cursor, page)
+                    : orderRepository.getAdminOrdersByStatusBefore(status, cursor, page);
+        }
+        return toPage(rows, pageSize, AdminOrderRow::getOrderSk);
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static <T> PageResponse<T> toPage(List<T> rows, int pageSize, Function<T, Integer> cursor) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        PageResponse<T> page = new PageResponse<>();
+        page.setItems(items);
+        page.setNextCursor(hasMore ? cursor.apply(items.get(items.size() - 1)) : null);
+        page.setLimit(pageSize);
+        return page;
+    }
+
+    @Workload(WorkloadClass.ADMIN)
+    public OrderStatsResponse getOrderStats(Integer top) {
+        return orderStats.snapshot(top == null ? 10 : Math.min(top, MAX_PAGE_SIZE));
+    }
+
+    @Workload(WorkloadClass.ADMIN)
+    public long getUnitsForSku(Integer sku) {
+        return orderStats.unitsForSku(sku);
+    }
+
+    @Workload(WorkloadClass.ADMIN)
+    public StatsCheckResponse checkOrderStats() {
+        return orderStats.check();
+    }
+
+    @Workload(WorkloadClass.ADMIN)
+    public Response reseedOrderStats() {
+        Response resp = new Response();
+        orderStats.reseed();
+        resp.setMessage("success");
+        return resp;
+    }
+
+    public StreamingResponseBody exportOrders(RowFormat format, String status, Integer from, Integer to) {
+        return out -> {
+            try (WorkloadClass.Scope scope = WorkloadClass.ADMIN.enter()) {
+                rowExporter.exportOrders(out, format, status, from, to);
+            }
+        };
+    }
+
+    public StreamingResponseBody exportCustomers(RowFormat format, Integer from, Integer to) {
+        return out -> {
+            try (WorkloadClass.Scope scope = WorkloadClass.ADMIN.enter()) {
+                rowExporter.exportCustomers(out, format, from, to);
+            }
+        };
+    }
+
+    @Workload(WorkloadClass.ADMIN)
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomer() {
         return (List<Customer>) customerRepository.findAll();
     }
 
+    @Workload(WorkloadClass.ADMIN)
     @Transactional
     public Response updateProduct(Product product){
         Response response = new Response();
         productRepository.updateProduct(product.getPrice(), product.getQuantity(), product.getSku());
+        productCatalogCache.update(product.getSku(), product.getPrice(), product.getQuantity());
         response.setMessage("success");
         return response;
     }
 
+    @Workload(WorkloadClass.ADMIN)
     @Transactional
     public Response updateOrder(Order order){
         Response response = new Response();
+        Order current = orderRepository.getOrderForUpdate(order.getOrderSk());
         orderRepository.updateOrder(order.getStatus(), order.getOrderSk());
+        if (current != null) {
+            orderStats.statusChanged(current.getStatus(), order.getStatus());
+        }
         response.setMessage("success");
         return response;
     }
+
+    /**
+     * Applies price and quantity changes for many SKUs in one transaction. Rows are loaded
+     * and locked in SKU order, patched in memory and flushed as JDBC-batched updates; the
+     * catalog cache takes all of them as a single change after commit.
+     */
+    @Workload(WorkloadClass.ADMIN)
+    @Transactional
+    public BatchUpdateResponse updateProducts(List<Product> products) {
+        checkBatchSize(products);
+        Map<Integer, Product> bySku = new HashMap<>();
+        for (List<Integer> chunk : chunks(keys(products, Product::getSku))) {
+            productRepository.getProductsForUpdate(chunk).forEach(p -> bySku.put(p.getSku(), p));
+        }
+        List<BatchRowResult> results = new ArrayList<>(products.size());
+        Map<Integer, Product> changed = new LinkedHashMap<>();
+        for (Product update : products) {
+            if (update == null || update.getSku() == null || update.getPrice() == null || update.getQuantity() == null) {
+                results.add(new BatchRowResult(update == null ? null : update.getSku(), "invalid"));
+                continue;
+            }
+            Product product = bySku.get(update.getSku());
+            if (product == null) {
+                results.add(new BatchRowResult(update.getSku(), "not_found"));
+                continue;
+            }
+            product.setPrice(update.getPrice());
+            product.setQuantity(update.getQuantity());
+            changed.put(product.getSku(), product);
+            results.add(new BatchRowResult(update.getSku(), "updated"));
+        }
+        productCatalogCache.putAll(changed.values());
+        return batchResponse(results);
+    }
+
+    /** Sets the status of many orders in one transaction, locking them in tracking-number order. */
+    @Workload(WorkloadClass.ADMIN)
+    @Transactional
+    public BatchUpdateResponse updateOrders(List<Order> orders) {
+        checkBatchSize(orders);
+        Map<Integer, Order> bySk = new HashMap<>();
+        for (List<Integer> chunk : chunks(keys(orders, Order::getOrderSk))) {
+            orderRepository.getOrdersForUpdate(chunk).forEach(o -> bySk.put(o.getOrderSk(), o));
+        }
+        List<BatchRowResult> results = new ArrayList<>(orders.size());
+        for (Order update : orders) {
+            if (update == null || update.getOrderSk() == null || update.getStatus() == null || update.getStatus().isBlank()) {
+                results.add(new BatchRowResult(update == null ? null : update.getOrderSk(), "invalid"));
+                continue;
+            }
+            Order order = bySk.get(update.getOrderSk());
+            if (order == null) {
+                results.add(new BatchRowResult(update.getOrderSk(), "not_found"));
+                continue;
+            }
+            orderStats.statusChanged(order.getStatus(), update.getStatus());
+            order.setStatus(update.getStatus());
+            results.add(new BatchRowResult(update.getOrderSk(), "updated"));
+        }
+        return batchResponse(results);
+    }
+
+    private static void checkBatchSize(List<?> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "batch is empty");
+        }
+        if (rows.size() > MAX_BATCH_ROWS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "batch is larger than " + MAX_BATCH_ROWS + " rows");
+        }
+    }
+
+    private static <T> List<Integer> keys(List<T> rows, Function<T, Integer> key) {
+        Set<Integer> keys = new TreeSet<>();
+        for (T row : rows) {
+            if (row != null && key.apply(row) != null) {
+                keys.add(key.apply(row));
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static List<List<Integer>> chunks(List<Integer> keys) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += LOCK_CHUNK) {
+            chunks.add(keys.subList(from, Math.min(keys.size(), from + LOCK_CHUNK)));
+        }
+        return chunks;
+    }
+
+    private static BatchUpdateResponse batchResponse(List<BatchRowResult> results) {
+        int updated = 0;
+        for (BatchRowResult result : results) {
+            if ("updated".equals(result.getOutcome())) {
+                updated++;
+            }
+        }
+        BatchUpdateResponse response = new BatchUpdateResponse();
+        response.setUpdated(updated);
+        response.setFailed(results.size() - updated);
+        response.setResults(results);
+        response.setMessage(updated == results.size() ? "success" : "partial");
+        return response;
+    }
 }
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code GET /api/products} body for one catalog version, serialized once as UTF-8 JSON
+ * and once gzip-compressed. The arrays are shared between requests and must not be modified.
+ * <p>
+ * A payload is built by the first request that needs it, on that request's thread, and
+ * concurrent requests for the same version wait for it rather than building their own.
+ * Versions change at most once per {@code demo.catalog.stock-refresh} under order load (see
+ * {@link ProductCatalogCache}), so the default compression level keeps the rebuild cheap;
+ * the best level saves a few percent at several times the CPU.
+ */
+public final class CatalogPayload {
+    private final long version;
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private CatalogPayload(long version, byte[] json, byte[] gzip) {
+        this.version = version;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public static CatalogPayload of(ProductCatalog catalog, ObjectMapper objectMapper) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(catalog.getProducts());
+            return new CatalogPayload(catalog.getVersion(), json, gzip(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+}
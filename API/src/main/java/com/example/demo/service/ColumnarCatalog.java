@@ -0,0 +1,231 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.request.ProductFilter;
+import com.example.demo.model.response.FacetedSearchResponse;
+
+import java.util.*;
+
+/**
+ * Read-optimized copy of a catalog snapshot for faceted filtering. Rows are catalog positions
+ * (SKU order); SKUs and prices are held in primitive arrays and every size, color and the
+ * in-stock flag has a bitset over the rows, so a search is a price scan plus a few word ANDs
+ * and touches no boxed {@code Integer} or {@code Double}.
+ * <p>
+ * Facet counts are disjunctive: each size count applies every filter except the size filter,
+ * and likewise for colors and stock, so a shopper can see what widening a facet would add.
+ * The size and color bitsets only change with the SKU set and are kept across price and
+ * quantity updates; the price column and in-stock bitset are rebuilt for each snapshot.
+ */
+public final class ColumnarCatalog {
+    private final ProductCatalog catalog;
+    private final Facets facets;
+    private final double[] prices;
+    private final long[] inStock;
+
+    private ColumnarCatalog(ProductCatalog catalog, Facets facets, double[] prices, long[] inStock) {
+        this.catalog = catalog;
+        this.facets = facets;
+        this.prices = prices;
+        this.inStock = inStock;
+    }
+
+    /** The columnar view of {@code catalog}, built at most once per snapshot. */
+    public static ColumnarCatalog of(ProductCatalog catalog) {
+        Facets facets = catalog.derive(Facets.class, Facets::of);
+        return catalog.derive(ColumnarCatalog.class, snapshot -> build(snapshot, facets));
+    }
+
+    private static ColumnarCatalog build(ProductCatalog catalog, Facets facets) {
+        List<Product> products = catalog.getProducts();
+        double[] prices = new double[products.size()];
+        long[] inStock = new long[words(products.size())];
+        for (int row = 0; row < prices.length; row++) {
+            Product product = products.get(row);
+            Double price = product.getPrice();
+            prices[row] = price == null ? Double.NaN : price;
+            Integer quantity = product.getQuantity();
+            if (quantity != null && quantity > 0) {
+                inStock[row >>> 6] |= 1L << row;
+            }
+        }
+        return new ColumnarCatalog(catalog, facets, prices, inStock);
+    }
+
+    public int size() {
+        return prices.length;
+    }
+
+    /** Products matching {@code filter} after the {@code after} SKU, at most {@code pageSize}, with facet counts. */
+    public FacetedSearchResponse search(ProductFilter filter, int pageSize) {
+        long[] price = priceRows(filter.getMinPrice(), filter.getMaxPrice());
+        long[] size = facets.rows(facets.sizes, facets.sizeRows, filter.getSize());
+        long[] color = facets.rows(facets.colors, facets.colorRows, filter.getColor());
+        long[] stock = Boolean.TRUE.equals(filter.getInStock()) ? inStock : null;
+        long[] matches = and(price, size, color, stock);
+
+        FacetedSearchResponse response = new FacetedSearchResponse();
+        response.setTotal(cardinality(matches, null));
+        response.setSizes(counts(facets.sizes, facets.sizeRows, and(price, color, stock)));
+        response.setColors(counts(facets.colors, facets.colorRows, and(price, size, stock)));
+        response.setInStock(cardinality(and(price, size, color), inStock));
+
+        List<Product> products = catalog.getProducts();
+        List<Product> items = new ArrayList<>(Math.min(pageSize, 64));
+        int row = filter.getAfter() == null ? 0 : facets.firstRowAfter(filter.getAfter());
+        for (row = nextSetBit(matches, row); row >= 0 && items.size() < pageSize; row = nextSetBit(matches, row + 1)) {
+            items.add(products.get(row));
+        }
+        response.setItems(items);
+        response.setNextCursor(row >= 0 && !items.isEmpty() ? items.get(items.size() - 1).getSku() : null);
+        response.setLimit(pageSize);
+        return response;
+    }
+
+    /** Rows priced within the bounds (inclusive), or {@code null} for no price filter. Unpriced rows never match. */
+    private long[] priceRows(Double min, Double max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        double low = min == null ? Double.NEGATIVE_INFINITY : min;
+        double high = max == null ? Double.POSITIVE_INFINITY : max;
+        long[] rows = new long[words(prices.length)];
+        for (int row = 0; row < prices.length; row++) {
+            double price = prices[row];
+            if (price >= low && price <= high) {
+                rows[row >>> 6] |= 1L << row;
+            }
+        }
+        return rows;
+    }
+
+    private static Map<String, Integer> counts(String[] values, long[][] rows, long[] mask) {
+        Map<String, Integer> counts = new LinkedHashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) {
+            counts.put(values[i], cardinality(rows[i], mask));
+        }
+        return counts;
+    }
+
+    /** Intersection of the non-null sets, or every row when all are null. */
+    private long[] and(long[]... sets) {
+        long[] result = null;
+        for (long[] set : sets) {
+            if (set == null) {
+                continue;
+            }
+            if (result == null) {
+                result = set.clone();
+            } else {
+                for (int i = 0; i < result.length; i++) {
+                    result[i] &= set[i];
+                }
+            }
+        }
+        if (result == null) {
+            result = new long[words(prices.length)];
+            Arrays.fill(result, -1L);
+            if ((prices.length & 63) != 0) {
+                result[result.length - 1] = (1L << prices.length) - 1;
+            }
+        }
+        return result;
+    }
+
+    private static int cardinality(long[] set, long[] mask) {
+        int count = 0;
+        for (int i = 0; i < set.length; i++) {
+            count += Long.bitCount(mask == null ? set[i] : set[i] & mask[i]);
+        }
+        return count;
+    }
+
+    private static int nextSetBit(long[] set, int from) {
+        int word = from >>> 6;
+        if (word >= set.length) {
+            return -1;
+        }
+        long bits = set[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == set.length) {
+                return -1;
+            }
+            bits = set[word];
+        }
+    }
+
+    private static int words(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /** SKU column plus size and color bitsets; depends only on the SKU set, so it survives price and stock changes. */
+    static final class Facets implements ProductCatalog.VariantView {
+        private final int[] skus;
+        private final String[] sizes;
+        private final long[][] sizeRows;
+        private final String[] colors;
+        private final long[][] colorRows;
+
+        private Facets(int[] skus, String[] sizes, long[][] sizeRows, String[] colors, long[][] colorRows) {
+            this.skus = skus;
+            this.sizes = sizes;
+            this.sizeRows = sizeRows;
+            this.colors = colors;
+            this.colorRows = colorRows;
+        }
+
+        static Facets of(ProductCatalog catalog) {
+            List<Product> products = catalog.getProducts();
+            int[] skus = new int[products.size()];
+            Map<String, long[]> bySize = new LinkedHashMap<>();
+            Map<String, long[]> byColor = new LinkedHashMap<>();
+            for (int row = 0; row < skus.length; row++) {
+                Product product = products.get(row);
+                skus[row] = product.getSku() == null ? Integer.MIN_VALUE : product.getSku();
+                set(bySize, product.getSize(), row, skus.length);
+                set(byColor, product.getColor(), row, skus.length);
+            }
+            return new Facets(skus, bySize.keySet().toArray(new String[0]), bySize.values().toArray(new long[0][]),
+                    byColor.keySet().toArray(new String[0]), byColor.values().toArray(new long[0][]));
+        }
+
+        private static void set(Map<String, long[]> facet, String value, int row, int rows) {
+            if (value != null) {
+                facet.computeIfAbsent(value, v -> new long[words(rows)])[row >>> 6] |= 1L << row;
+            }
+        }
+
+        /** Union of the rows of the selected values, or {@code null} when nothing is selected. */
+        long[] rows(String[] values, long[][] rows, List<String> selected) {
+            if (selected == null || selected.isEmpty()) {
+                return null;
+            }
+            long[] union = new long[words(skus.length)];
+            for (int i = 0; i < values.length; i++) {
+                if (selected.contains(values[i])) {
+                    for (int w = 0; w < union.length; w++) {
+                        union[w] |= rows[i][w];
+                    }
+                }
+            }
+            return union;
+        }
+
+        int firstRowAfter(int sku) {
+            int low = 0;
+            int high = skus.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (skus[mid] <= sku) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
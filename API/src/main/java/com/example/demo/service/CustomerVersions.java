@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-customer change counters used to build ETags for customer reads. Only customers
+ * written since startup have an entry; everyone else is at version 0.
+ */
+@Component
+public class CustomerVersions {
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+
+    public long get(Integer customerId) {
+        return customerId == null ? 0 : versions.getOrDefault(customerId, 0L);
+    }
+
+    public void bump(Integer customerId) {
+        if (customerId != null) {
+            versions.merge(customerId, 1L, Long::sum);
+        }
+    }
+}
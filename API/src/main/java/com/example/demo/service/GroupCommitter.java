@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.config.WorkloadClass;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs small writes in a transaction. With {@code demo.group-commit.enabled=true}, writes from
+ * concurrent callers are queued and a single flusher thread commits them together, one
+ * transaction per batch of up to {@code max-batch} writes or {@code max-delay}, whichever
+ * comes first. Each caller blocks until its own write has committed and gets its own result
+ * or exception back.
+ * <p>
+ * If a batch fails it is split in half and each half is retried, down to single writes, so
+ * one bad row only fails its own caller and costs about two commits per halving rather
+ * than one commit per write. Work must therefore be safe to run again after a rollback.
+ */
+@Slf4j
+@Component
+public class GroupCommitter {
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final Duration maxDelay;
+    private final Duration offerTimeout;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public GroupCommitter(PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${demo.group-commit.enabled:false}") boolean enabled,
+                          @Value("${demo.group-commit.max-batch:100}") int maxBatch,
+                          @Value("${demo.group-commit.max-delay:5ms}") Duration maxDelay,
+                          @Value("${demo.group-commit.queue-capacity:10000}") int queueCapacity,
+                          @Value("${demo.group-commit.offer-timeout:100ms}") Duration offerTimeout) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxDelay = maxDelay;
+        this.offerTimeout = offerTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = DistributionSummary.builder("group.commit.batch.size")
+                .description("Writes committed per group-commit transaction")
+                .baseUnit("writes")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("group.commit.flush")
+                .description("Time to commit one group-commit batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("group.commit.queue.depth", queue, BlockingQueue::size)
+                .description("Writes waiting for the next group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code work} in a transaction and returns its result once that transaction has
+     * committed. Rejects with 503 when group commit is on and the queue stays full.
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (!running) {
+            return transactionTemplate.execute(status -> work.get());
+        }
+        PendingWrite<T> write = new PendingWrite<>(work);
+        try {
+            if (!queue.offer(write, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "write queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "interrupted while queueing write");
+        }
+        try {
+            return write.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void flushLoop() {
+        // Only checkout writes are queued here, so batches draw from the checkout pool.
+        WorkloadClass.CHECKOUT.enter();
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatch);
+        boolean interrupted = false;
+        while (running || !queue.isEmpty()) {
+            try {
+                if (interrupted) {
+                    // Commit what is already queued without waiting, then stop.
+                    queue.drainTo(batch, maxBatch);
+                } else {
+                    collect(batch);
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                running = false;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                log.error("Group commit flush failed", e);
+                batch.forEach(write -> write.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Waits for a first write, then gathers more until the batch is full or {@code max-delay} has passed. */
+    private void collect(List<PendingWrite<?>> batch) throws InterruptedException {
+        PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                break;
+            }
+            PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    void flush(List<PendingWrite<?>> batch) {
+        long start = System.nanoTime();
+        try {
+            List<Object> results = transactionTemplate.execute(status -> {
+                List<Object> values = new ArrayList<>(batch.size());
+                for (PendingWrite<?> write : batch) {
+                    values.add(write.work.get());
+                }
+                return values;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+            } else {
+                int half = batch.size() / 2;
+                flush(batch.subList(0, half));
+                flush(batch.subList(half, batch.size()));
+                return;
+            }
+        }
+        batchSize.record(batch.size());
+        flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    static final class PendingWrite<T> {
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        PendingWrite(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object value) {
+            result.complete((T) value);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Decrements {@code Product.quantity} with a conditional update per SKU, so concurrent
+ * orders only contend on the rows they touch and can never drive stock below zero.
+ */
+@Service
+public class InventoryService {
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Transactional
+    public void reserve(Integer sku, int quantity) {
+        reserve(Collections.singletonMap(sku, quantity));
+    }
+
+    /**
+     * Reserves every SKU or none: the first SKU without enough stock throws and rolls the
+     * surrounding transaction back. SKUs are updated in ascending order so two multi-line
+     * orders cannot deadlock on each other's rows. A missing SKU is rejected with 400.
+     */
+    @Transactional
+    public void reserve(Map<Integer, Integer> quantitiesBySku) {
+        for (Integer sku : quantitiesBySku.keySet()) {
+            if (sku == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sku is required");
+            }
+        }
+        Map<Integer, Integer> ordered = new TreeMap<>(quantitiesBySku);
+        ordered.forEach((sku, quantity) -> {
+            if (productRepository.reserveQuantity(sku, quantity) == 0) {
+                throw new InsufficientStockException(sku);
+            }
+        });
+        productCatalogCache.adjustQuantities(ordered);
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReadReplicaDataSource;
+import com.example.demo.model.Order;
+import com.example.demo.model.response.OrderStatsResponse;
+import com.example.demo.model.response.StatsCheckResponse;
+import com.example.demo.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Live order counts per status and units ordered per SKU (one unit per order row), kept in
+ * {@link LongAdder}s and updated after each order write commits, so reads never touch the
+ * database. Seeded from a SQL recount at startup; {@link #check()} repeats that recount
+ * and reports any drift, and {@link #reseed()} replaces the counters with it.
+ * <p>
+ * Both recount queries run in one read-only, repeatable-read transaction on the primary, so
+ * they see the same snapshot. The new counters start taking after-commit increments just
+ * before that snapshot is taken, so writes committed after it are counted once, by the
+ * increments; only one that commits in that instant and runs its after-commit hook later
+ * is counted twice, which the check reports.
+ */
+@Slf4j
+@Component
+public class OrderStats {
+    private static final int MAX_MISMATCHES = 100;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantLock seedLock = new ReentrantLock();
+    private volatile Counts counts = new Counts(false);
+    private volatile Counts pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        CompletableFuture.runAsync(this::reseed)
+                .exceptionally(e -> {
+                    log.warn("Order stats seeding failed, counters stay unseeded until reseeded", e);
+                    return null;
+                });
+    }
+
+    public void reseed() {
+        seedLock.lock();
+        try {
+            Counts fresh = new Counts(true);
+            try {
+                Recount recount = recount(() -> pending = fresh);
+                for (Map.Entry<String, Long> row : recount.byStatus().entrySet()) {
+                    fresh.add(fresh.ordersByStatus, row.getKey(), row.getValue());
+                }
+                for (Map.Entry<Integer, Long> row : recount.bySku().entrySet()) {
+                    fresh.add(fresh.unitsBySku, row.getKey(), row.getValue());
+                }
+                counts = fresh;
+            } finally {
+                pending = null;
+            }
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    public void orderPlaced(Order order) {
+        String status = order.getStatus();
+        Integer sku = order.getSku();
+        TransactionHooks.afterCommit(() -> apply(c -> {
+            c.add(c.ordersByStatus, status, 1);
+            c.add(c.unitsBySku, sku, 1);
+        }));
+    }
+
+    public void statusChanged(String from, String to) {
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> apply(c -> {
+            c.add(c.ordersByStatus, from, -1);
+            c.add(c.ordersByStatus, to, 1);
+        }));
+    }
+
+    private void apply(Consumer<Counts> update) {
+        update.accept(counts);
+        Counts seeding = pending;
+        if (seeding != null) {
+            update.accept(seeding);
+        }
+    }
+
+    /** Counts per status and the {@code top} SKUs by units, largest first. */
+    public OrderStatsResponse snapshot(int top) {
+        Counts c = counts;
+        Map<String, Long> byStatus = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<String, LongAdder> entry : c.ordersByStatus.entrySet()) {
+            long value = entry.getValue().sum();
+            if (value != 0) {
+                byStatus.put(entry.getKey(), value);
+                total += value;
+            }
+        }
+        PriorityQueue<Map.Entry<Integer, Long>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Integer, LongAdder> entry : c.unitsBySku.entrySet()) {
+            long value = entry.getValue().sum();
+            if (top <= 0 || value == 0) {
+                continue;
+            }
+            if (best.size() < top) {
+                best.add(Map.entry(entry.getKey(), value));
+            } else if (value > best.peek().getValue()) {
+                best.poll();
+                best.add(Map.entry(entry.getKey(), value));
+            }
+        }
+        List<Map.Entry<Integer, Long>> ranked = new ArrayList<>(best);
+        ranked.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+        Map<Integer, Long> topSkus = new LinkedHashMap<>();
+        ranked.forEach(entry -> topSkus.put(entry.getKey(), entry.getValue()));
+
+        OrderStatsResponse response = new OrderStatsResponse();
+        response.setSeeded(c.seeded);
+        response.setTotalOrders(total);
+        response.setOrdersByStatus(byStatus);
+        response.setTopSkus(topSkus);
+        return response;
+    }
+
+    public long unitsForSku(Integer sku) {
+        LongAdder units = counts.unitsBySku.get(sku);
+        return units == null ? 0 : units.sum();
+    }
+
+    /**
+     * Recounts the order table and compares it with the counters. Orders written while the
+     * check runs can show up as transient mismatches.
+     */
+    public StatsCheckResponse check() {
+        Counts c = counts;
+        Recount recount = recount(() -> {
+        });
+        List<String> mismatches = new ArrayList<>();
+        compare("status", recount.byStatus(), c.ordersByStatus, mismatches);
+        compare("sku", recount.bySku(), c.unitsBySku, mismatches);
+        StatsCheckResponse response = new StatsCheckResponse();
+        response.setConsistent(c.seeded && mismatches.isEmpty());
+        response.setMismatches(mismatches.size() > MAX_MISMATCHES ? mismatches.subList(0, MAX_MISMATCHES) : mismatches);
+        response.setMessage(!c.seeded ? "unseeded" : mismatches.isEmpty() ? "consistent" : "inconsistent");
+        return response;
+    }
+
+    private static <K> void compare(String kind, Map<K, Long> database, Map<K, LongAdder> counters, List<String> mismatches) {
+        Set<K> keys = new HashSet<>(database.keySet());
+        keys.addAll(counters.keySet());
+        for (K key : keys) {
+            long expected = database.getOrDefault(key, 0L);
+            LongAdder counter = counters.get(key);
+            long actual = counter == null ? 0 : counter.sum();
+            if (expected != actual) {
+                mismatches.add(kind + " " + key + ": counter " + actual + ", database " + expected);
+            }
+        }
+    }
+
+    /** Runs both recounts on one snapshot, calling {@code beforeSnapshot} just before it is taken. */
+    private Recount recount(Runnable beforeSnapshot) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return ReadReplicaDataSource.onPrimary(() -> tx.execute(status -> {
+            beforeSnapshot.run();
+            return new Recount(statusCounts(), skuCounts());
+        }));
+    }
+
+    private Map<String, Long> statusCounts() {
+        Map<String, Long> result = new HashMap<>();
+        for (Object[] row : orderRepository.countOrdersByStatus()) {
+            if (row[0] != null) {
+                result.put((String) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return result;
+    }
+
+    private Map<Integer, Long> skuCounts() {
+        Map<Integer, Long> result = new HashMap<>();
+        for (Object[] row : orderRepository.countOrdersBySku()) {
+            if (row[0] != null) {
+                result.put((Integer) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return result;
+    }
+
+    private record Recount(Map<String, Long> byStatus, Map<Integer, Long> bySku) {
+    }
+
+    private static final class Counts {
+        final boolean seeded;
+        final ConcurrentHashMap<String, LongAdder> ordersByStatus = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, LongAdder> unitsBySku = new ConcurrentHashMap<>();
+
+        Counts(boolean seeded) {
+            this.seeded = seeded;
+        }
+
+        <K> void add(ConcurrentHashMap<K, LongAdder> counters, K key, long delta) {
+            if (key == null) {
+                return;
+            }
+            LongAdder counter = counters.get(key);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(key, k -> new LongAdder());
+            }
+            counter.add(delta);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned snapshot of the product table, kept in SKU order and indexed by
+ * SKU, product name and (product name, size, color) variant.
+ * A snapshot that is not {@link #isLoaded() loaded} only carries a version and marks the
+ * cache as empty.
+ */
+public final class ProductCatalog {
+    private static final Comparator<Product> BY_SKU =
+            Comparator.comparing(Product::getSku, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final long version;
+    private final boolean loaded;
+    private final Product[] products;
+    private final Map<Integer, Integer> positionBySku;
+    private final Map<String, int[]> positionsByName;
+    private final Map<VariantKey, Integer> positionByVariant;
+    private final Map<Class<?>, Object> derived = new ConcurrentHashMap<>();
+
+    private ProductCatalog(long version, boolean loaded, Product[] products, Map<Integer, Integer> positionBySku,
+                           Map<String, int[]> positionsByName, Map<VariantKey, Integer> positionByVariant) {
+        this.version = version;
+        this.loaded = loaded;
+        this.products = products;
+        this.positionBySku = positionBySku;
+        this.positionsByName = positionsByName;
+        this.positionByVariant = positionByVariant;
+    }
+
+    static ProductCatalog unloaded(long version) {
+        return new ProductCatalog(version, false, new Product[0], Map.of(), Map.of(), Map.of());
+    }
+
+    public static ProductCatalog of(long version, Iterable<Product> source) {
+        List<Product> list = new ArrayList<>();
+        for (Product product : source) {
+            list.add(product);
+        }
+        return build(version, list.toArray(new Product[0]));
+    }
+
+    private static ProductCatalog build(long version, Product[] products) {
+        Arrays.sort(products, BY_SKU);
+        Map<Integer, Integer> positionBySku = new HashMap<>(products.length * 2);
+        Map<String, List<Integer>> byName = new HashMap<>();
+        Map<VariantKey, Integer> positionByVariant = new HashMap<>(products.length * 2);
+        for (int i = 0; i < products.length; i++) {
+            positionBySku.put(products[i].getSku(), i);
+            byName.computeIfAbsent(products[i].getProductName(), k -> new ArrayList<>()).add(i);
+            positionByVariant.putIfAbsent(VariantKey.of(products[i]), i);
+        }
+        Map<String, int[]> positionsByName = new HashMap<>(byName.size() * 2);
+        byName.forEach((name, positions) ->
+                positionsByName.put(name, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return new ProductCatalog(version, true, products, positionBySku, positionsByName, positionByVariant);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    /** Products in SKU order. The returned entities are shared and must be treated as read-only. */
+    public List<Product> getProducts() {
+        return Collections.unmodifiableList(Arrays.asList(products));
+    }
+
+    /**
+     * Returns the view of this snapshot produced by {@code factory}, computing it at most once
+     * per snapshot. Views are dropped together with the snapshot on the next catalog change,
+     * except {@link VariantView}s when the change keeps every SKU, name, size and color.
+     */
+    public <T> T derive(Class<T> type, Function<ProductCatalog, T> factory) {
+        return type.cast(derived.computeIfAbsent(type, k -> factory.apply(this)));
+    }
+
+    /** Up to {@code max} products whose SKU is greater than {@code after}, in SKU order. */
+    public List<Product> getProductsAfter(Integer after, int max) {
+        int from = 0;
+        if (after != null) {
+            int low = 0;
+            int high = products.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Integer sku = products[mid].getSku();
+                if (sku == null || sku <= after) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        return getProducts().subList(from, Math.min(products.length, from + max));
+    }
+
+    public Product getBySku(Integer sku) {
+        Integer position = positionBySku.get(sku);
+        return position == null ? null : products[position];
+    }
+
+    public List<Product> getByProductName(String productName) {
+        int[] positions = positionsByName.get(productName);
+        if (positions == null) {
+            return List.of();
+        }
+        List<Product> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(products[position]);
+        }
+        return result;
+    }
+
+    public Product getVariant(String productName, String size, String color) {
+        Integer position = positionByVariant.get(new VariantKey(productName, size, color));
+        return position == null ? null : products[position];
+    }
+
+    /**
+     * Returns a new snapshot with {@code updated} inserted or replaced. When every product
+     * replaces an existing SKU without changing its name, size or color, the indexes are
+     * reused and only the product array is copied.
+     */
+    ProductCatalog withProducts(long newVersion, Collection<Product> updated) {
+        Product[] copy = products.clone();
+        List<Product> added = new ArrayList<>();
+        boolean reindex = false;
+        for (Product product : updated) {
+            Integer position = positionBySku.get(product.getSku());
+            if (position == null) {
+                added.add(product);
+                continue;
+            }
+            reindex |= !VariantKey.of(copy[position]).equals(VariantKey.of(product));
+            copy[position] = product;
+        }
+        if (!added.isEmpty()) {
+            Product[] grown = Arrays.copyOf(copy, copy.length + added.size());
+            for (int i = 0; i < added.size(); i++) {
+                grown[copy.length + i] = added.get(i);
+            }
+            return build(newVersion, grown);
+        }
+        if (reindex) {
+            return build(newVersion, copy);
+        }
+        ProductCatalog next = new ProductCatalog(newVersion, true, copy, positionBySku, positionsByName, positionByVariant);
+        derived.forEach((type, view) -> {
+            if (view instanceof VariantView) {
+                next.derived.put(type, view);
+            }
+        });
+        return next;
+    }
+
+    static Product copyOf(Product source) {
+        Product product = new Product();
+        product.setSku(source.getSku());
+        product.setProductName(source.getProductName());
+        product.setPrice(source.getPrice());
+        product.setProductImageId(source.getProductImageId());
+        product.setColor(source.getColor());
+        product.setSize(source.getSize());
+        product.setQuantity(source.getQuantity());
+        return product;
+    }
+
+    /**
+     * A derived view that only depends on which SKUs exist and their name, size and color, and
+     * reads anything else (price, quantity) from the snapshot it is queried with.
+     */
+    public interface VariantView {
+    }
+
+    private record VariantKey(String productName, String size, String color) {
+        static VariantKey of(Product product) {
+            return new VariantKey(product.getProductName(), product.getSize(), product.getColor());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current {@link ProductCatalog} snapshot. Reads load it once from the database,
+ * writes patch it copy-on-write once their transaction commits. Every change bumps the
+ * version, so a load that raced with a write is discarded instead of being installed.
+ * <p>
+ * Stock reservations are the exception: they are summed per SKU and applied as one change by
+ * the first read at least {@code demo.catalog.stock-refresh} after the oldest of them, so a
+ * burst of orders costs one snapshot copy and one version (and hence one ETag, payload and
+ * view rebuild) instead of one per order. Catalog quantities may lag by that long; the
+ * conditional update in {@link InventoryService} is what keeps stock from going negative.
+ * Any other write applies the pending reservations first.
+ * <p>
+ * A load that finished after a reservation was recorded may already have read its commit,
+ * so such a reservation invalidates the snapshot rather than being subtracted twice.
+ */
+@Component
+public class ProductCatalogCache {
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final AtomicReference<ProductCatalog> current = new AtomicReference<>(ProductCatalog.unloaded(0));
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Integer, Integer> reservedBySku = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private long loadedAt;
+    private final long stockRefreshNanos;
+    private volatile boolean reservationsPending;
+    private long reservedSince;
+
+    @Autowired
+    public ProductCatalogCache(@Value("${demo.catalog.stock-refresh:1s}") Duration stockRefresh) {
+        this.stockRefreshNanos = stockRefresh.toNanos();
+    }
+
+    ProductCatalogCache() {
+        this(Duration.ZERO);
+    }
+
+    public ProductCatalog get(Supplier<? extends Iterable<Product>> loader) {
+        ProductCatalog catalog = current();
+        if (catalog.isLoaded()) {
+            return catalog;
+        }
+        loadLock.lock();
+        try {
+            ProductCatalog loaded = null;
+            for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+                catalog = current.get();
+                if (catalog.isLoaded()) {
+                    return catalog;
+                }
+                loaded = ProductCatalog.of(catalog.getVersion() + 1, loader.get());
+                long readAt = sequence.incrementAndGet();
+                writeLock.lock();
+                try {
+                    if (current.get() == catalog) {
+                        current.set(loaded);
+                        loadedAt = readAt;
+                        return loaded;
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        return current().getVersion();
+    }
+
+    public void put(Product product) {
+        putAll(List.of(product));
+    }
+
+    /** Installs all of {@code products} as one catalog change, whatever the batch size. */
+    public void putAll(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        List<Product> copies = new ArrayList<>(products.size());
+        products.forEach(product -> copies.add(ProductCatalog.copyOf(product)));
+        apply(catalog -> catalog.withProducts(catalog.getVersion() + 1, copies));
+    }
+
+    public void update(Integer sku, Double price, Integer quantity) {
+        apply(catalog -> {
+            Product cached = catalog.getBySku(sku);
+            if (cached == null) {
+                return ProductCatalog.unloaded(catalog.getVersion() + 1);
+            }
+            Product copy = ProductCatalog.copyOf(cached);
+            copy.setPrice(price);
+            copy.setQuantity(quantity);
+            return catalog.withProducts(catalog.getVersion() + 1, List.of(copy));
+        });
+    }
+
+    /** Records committed stock reservations, to be applied by a later read or write. */
+    public void adjustQuantities(Map<Integer, Integer> reservedBySku) {
+        long recordedAt = sequence.get();
+        TransactionHooks.afterCommit(() -> {
+            writeLock.lock();
+            try {
+                ProductCatalog catalog = current.get();
+                if (!catalog.isLoaded() || loadedAt > recordedAt) {
+                    clearReservations();
+                    current.set(ProductCatalog.unloaded(catalog.getVersion() + 1));
+                    return;
+                }
+                reservedBySku.forEach((sku, quantity) -> this.reservedBySku.merge(sku, quantity, Integer::sum));
+                if (!reservationsPending) {
+                    reservedSince = System.nanoTime();
+                    reservationsPending = true;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    public void invalidate() {
+        TransactionHooks.afterCommit(() -> {
+            writeLock.lock();
+            try {
+                clearReservations();
+                current.set(ProductCatalog.unloaded(current.get().getVersion() + 1));
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    private ProductCatalog current() {
+        if (reservationsPending && System.nanoTime() - reservedSince >= stockRefreshNanos) {
+            writeLock.lock();
+            try {
+                applyReservations();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return current.get();
+    }
+
+    private void apply(UnaryOperator<ProductCatalog> patch) {
+        TransactionHooks.afterCommit(() -> {
+            writeLock.lock();
+            try {
+                applyReservations();
+                ProductCatalog catalog = current.get();
+                current.set(catalog.isLoaded() ? patch.apply(catalog) : ProductCatalog.unloaded(catalog.getVersion() + 1));
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /** Folds the pending reservations into the snapshot as one change. Needs {@link #writeLock}. */
+    private void applyReservations() {
+        if (!reservationsPending) {
+            return;
+        }
+        ProductCatalog catalog = current.get();
+        List<Product> patched = new ArrayList<>(reservedBySku.size());
+        for (Map.Entry<Integer, Integer> reserved : reservedBySku.entrySet()) {
+            Product cached = catalog.getBySku(reserved.getKey());
+            if (cached == null) {
+                patched = null;
+                break;
+            }
+            Product copy = ProductCatalog.copyOf(cached);
+            copy.setQuantity(cached.getQuantity() - reserved.getValue());
+            patched.add(copy);
+        }
+        current.set(patched == null
+                ? ProductCatalog.unloaded(catalog.getVersion() + 1)
+                : catalog.withProducts(catalog.getVersion() + 1, patched));
+        clearReservations();
+    }
+
+    private void clearReservations() {
+        reservedBySku.clear();
+        reservationsPending = false;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.response.ImportResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Streams a CSV or NDJSON upload of products into the product table. The body is read one
+ * line at a time and upserted in JDBC batches of {@code batch-size} rows, each batch in its
+ * own transaction, so memory stays flat whatever the upload size. A batch the database
+ * rejects is split in half and each half retried, down to single rows, so only the
+ * offending rows are reported and one bad row costs a few batches rather than one per row.
+ * <p>
+ * CSV needs a header naming its columns, either as table columns ({@code product_name})
+ * or as JSON properties ({@code productName}); quoted fields may not span lines.
+ */
+@Slf4j
+@Component
+public class ProductImporter {
+    private static final int MAX_REJECTIONS = 100;
+    private static final String UPSERT = "insert into \"seis739finalschema\".\"product\" "
+            + "(\"sku\", \"product_name\", \"price\", \"img_id\", \"size\", \"color\", \"quantity\") "
+            + "values (?, ?, ?, ?, ?, ?, ?) "
+            + "on conflict (\"sku\") do update set \"product_name\" = excluded.\"product_name\", "
+            + "\"price\" = excluded.\"price\", \"img_id\" = excluded.\"img_id\", \"size\" = excluded.\"size\", "
+            + "\"color\" = excluded.\"color\", \"quantity\" = excluded.\"quantity\"";
+    private static final Map<String, String> COLUMNS = Map.ofEntries(
+            Map.entry("sku", "sku"),
+            Map.entry("product_name", "productName"),
+            Map.entry("productname", "productName"),
+            Map.entry("price", "price"),
+            Map.entry("img_id", "productImageId"),
+            Map.entry("productimageid", "productImageId"),
+            Map.entry("size", "size"),
+            Map.entry("color", "color"),
+            Map.entry("quantity", "quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductCatalogCache productCatalogCache;
+    private final int batchSize;
+
+    public ProductImporter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           ProductCatalogCache productCatalogCache,
+                           @Value("${demo.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.productCatalogCache = productCatalogCache;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResponse importProducts(InputStream body, RowFormat format) {
+        long start = System.nanoTime();
+        Report report = new Report();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String[] header = null;
+            if (format == RowFormat.CSV) {
+                String first = reader.readLine();
+                lineNumber++;
+                header = header(first);
+            }
+            Map<Integer, Row> batch = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Product product;
+                try {
+                    product = format == RowFormat.CSV ? fromCsv(header, line) : fromJson(line);
+                    validate(product);
+                } catch (IllegalArgumentException e) {
+                    report.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+                // A repeated SKU in one batch would hit the same row twice in one statement; the
+                // last row wins, as it would across batches.
+                if (batch.put(product.getSku(), new Row(lineNumber, product)) != null) {
+                    report.imported++;
+                }
+                if (batch.size() >= batchSize) {
+                    flush(new ArrayList<>(batch.values()), report);
+                    batch.clear();
+                }
+            }
+            flush(new ArrayList<>(batch.values()), report);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "could not read upload after "
+                    + report.imported + " rows", e);
+        } finally {
+            if (report.imported > 0) {
+                productCatalogCache.invalidate();
+            }
+        }
+        return report.toResponse(System.nanoTime() - start);
+    }
+
+    private void flush(List<Row> rows, Report report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Product p = row.product();
+            args.add(new Object[]{p.getSku(), p.getProductName(), p.getPrice(), p.getProductImageId(),
+                    p.getSize(), p.getColor(), p.getQuantity()});
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT, args));
+            report.imported += rows.size();
+        } catch (DataAccessException e) {
+            Throwable cause = e.getMostSpecificCause();
+            if (rows.size() == 1) {
+                report.reject(rows.get(0).line(), cause.getMessage());
+                return;
+            }
+            log.info("Import batch of lines {}-{} failed, splitting it: {}",
+                    rows.get(0).line(), rows.get(rows.size() - 1).line(), cause.getMessage());
+            int half = rows.size() / 2;
+            flush(rows.subList(0, half), report);
+            flush(rows.subList(half, rows.size()), report);
+        }
+    }
+
+    private static String[] header(String line) {
+        if (line == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV upload has no header");
+        }
+        List<String> fields;
+        try {
+            fields = splitCsv(line);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header: " + e.getMessage());
+        }
+        String[] properties = new String[fields.size()];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < fields.size(); i++) {
+            properties[i] = COLUMNS.get(fields.get(i).trim().toLowerCase(Locale.ROOT));
+            if (properties[i] != null) {
+                seen.add(properties[i]);
+            }
+        }
+        if (seen.size() < 7) {
+            Set<String> missing = new TreeSet<>(COLUMNS.values());
+            missing.removeAll(seen);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header is missing " + missing);
+        }
+        return properties;
+    }
+
+    private static Product fromCsv(String[] header, String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " fields, found " + fields.size());
+        }
+        Product product = new Product();
+        for (int i = 0; i < header.length; i++) {
+            String value = fields.get(i).trim();
+            if (header[i] == null || value.isEmpty()) {
+                continue;
+            }
+            switch (header[i]) {
+                case "sku" -> product.setSku(parseInt("sku", value));
+                case "productName" -> product.setProductName(value);
+                case "price" -> product.setPrice(parseDouble(value));
+                case "productImageId" -> product.setProductImageId(parseInt("productImageId", value));
+                case "size" -> product.setSize(value);
+                case "color" -> product.setColor(value);
+                case "quantity" -> product.setQuantity(parseInt("quantity", value));
+                default -> { }
+            }
+        }
+        return product;
+    }
+
+    private Product fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, Product.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static void validate(Product product) {
+        if (product.getSku() == null || product.getProductName() == null || product.getPrice() == null
+                || product.getProductImageId() == null || product.getSize() == null
+                || product.getColor() == null || product.getQuantity() == null) {
+            throw new IllegalArgumentException("every field is required");
+        }
+        if (product.getPrice() < 0 || product.getQuantity() < 0) {
+            throw new IllegalArgumentException("price and quantity must not be negative");
+        }
+    }
+
+    private static Integer parseInt(String field, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + value);
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number: " + value);
+        }
+    }
+
+    /** Splits one CSV line, honouring double-quoted fields and {@code ""} escapes. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(long line, Product product) {
+    }
+
+    private static final class Report {
+        long imported;
+        long rejected;
+        final List<String> rejections = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (rejections.size() < MAX_REJECTIONS) {
+                rejections.add("line " + line + ": " + reason);
+            }
+        }
+
+        ImportResponse toResponse(long elapsedNanos) {
+            ImportResponse response = new ImportResponse();
+            response.setImported(imported);
+            response.setRejected(rejected);
+            response.setRejections(rejections);
+            response.setElapsedMillis(elapsedNanos / 1_000_000);
+            response.setRowsPerSecond(elapsedNanos == 0 ? 0 : (imported + rejected) * 1e9 / elapsedNanos);
+            response.setMessage(rejected == 0 ? "success" : "partial");
+            return response;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.response.ProductGroup;
+
+import java.util.*;
+
+/**
+ * Typeahead index over the catalog. Products are grouped by name (ignoring case and
+ * punctuation) and each group is filed under every prefix, up to {@link #MAX_GRAM} characters,
+ * of the words in its name and in its variants' sizes and colors. A query matches a group when
+ * each of its words starts one of those words, and only the variants matching every word are
+ * returned, so {@code "hood bla"} finds the black variants of a hoodie.
+ * <p>
+ * Group ids are assigned in rank order (shorter names first) and posting lists are sorted
+ * arrays of them, so a query walks the shortest list and looks the others up by binary search.
+ * Every group in the intersection is ranked by how many query words match a whole word, then
+ * by id, keeping the best {@code limit} in a bounded heap; the walk stops early only once the
+ * heap is full of groups matching every word whole, which no later id can beat. The index holds
+ * SKUs rather than products, so prices and quantities are read from the snapshot being searched
+ * and price updates keep the index.
+ */
+public final class ProductSearchIndex implements ProductCatalog.VariantView {
+    static final int MAX_GRAM = 10;
+    private static final int MAX_WORDS = 8;
+    private static final String[] NO_TERMS = new String[0];
+    private static final Comparator<Match> BEST_FIRST =
+            Comparator.comparingInt((Match match) -> -match.wholeWords).thenComparingInt(Match::id);
+
+    private final Group[] groups;
+    private final Map<String, int[]> postings;
+
+    private ProductSearchIndex(Group[] groups, Map<String, int[]> postings) {
+        this.groups = groups;
+        this.postings = postings;
+    }
+
+    public static ProductSearchIndex of(ProductCatalog catalog) {
+        Map<String, String> canonical = new HashMap<>();
+        Map<String, GroupBuilder> byName = new HashMap<>();
+        for (Product product : catalog.getProducts()) {
+            if (product.getSku() == null) {
+                continue;
+            }
+            String[] nameTerms = terms(product.getProductName(), canonical);
+            byName.computeIfAbsent(String.join(" ", nameTerms),
+                    key -> new GroupBuilder(key, product.getProductName(), nameTerms)).add(product, canonical);
+        }
+        List<GroupBuilder> ranked = new ArrayList<>(byName.values());
+        ranked.sort(Comparator.comparingInt((GroupBuilder group) -> group.key.length())
+                .thenComparing(group -> group.key));
+
+        Group[] groups = new Group[ranked.size()];
+        Map<String, IntList> lists = new HashMap<>();
+        Set<String> grams = new HashSet<>();
+        for (int id = 0; id < groups.length; id++) {
+            Group group = ranked.get(id).build();
+            groups[id] = group;
+            grams.clear();
+            addGrams(group.nameTerms, grams);
+            for (String[] variantTerms : group.variantTerms) {
+                addGrams(variantTerms, grams);
+            }
+            for (String gram : grams) {
+                lists.computeIfAbsent(gram, k -> new IntList()).add(id);
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+        lists.forEach((gram, list) -> postings.put(gram, list.toArray()));
+        return new ProductSearchIndex(groups, postings);
+    }
+
+    public int size() {
+        return groups.length;
+    }
+
+    /** Up to {@code limit} product groups matching {@code query}, best first, priced from {@code catalog}. */
+    public List<ProductGroup> search(ProductCatalog catalog, String query, int limit) {
+        String[] words = terms(query, new HashMap<>());
+        if (words.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        if (words.length > MAX_WORDS) {
+            words = Arrays.copyOf(words, MAX_WORDS);
+        }
+        int[][] lists = new int[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            lists[i] = postings.get(word.length() > MAX_GRAM ? word.substring(0, MAX_GRAM) : word);
+            if (lists[i] == null) {
+                return List.of();
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        int[] cursors = new int[lists.length];
+        PriorityQueue<Match> best = new PriorityQueue<>(limit, BEST_FIRST.reversed());
+        candidates:
+        for (int id : lists[0]) {
+            for (int i = 1; i < lists.length; i++) {
+                int found = Arrays.binarySearch(lists[i], cursors[i], lists[i].length, id);
+                cursors[i] = found < 0 ? -found - 1 : found;
+                if (cursors[i] == lists[i].length) {
+                    break candidates;
+                }
+                if (found < 0) {
+                    continue candidates;
+                }
+            }
+            Match match = match(id, words);
+            if (match == null) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (BEST_FIRST.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+            if (best.size() == limit && best.peek().wholeWords == words.length) {
+                break;
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(BEST_FIRST);
+
+        List<ProductGroup> results = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ProductGroup result = toResult(catalog, groups[match.id], match.variants);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Checks a candidate word by word (postings only cover the first {@link #MAX_GRAM}
+     * characters) and picks the variants whose size and color match the words the name does not.
+     */
+    private Match match(int id, String[] words) {
+        Group group = groups[id];
+        boolean[] variants = new boolean[group.skus.length];
+        Arrays.fill(variants, true);
+        int wholeWords = 0;
+        for (String word : words) {
+            int nameMatch = find(group.nameTerms, word);
+            if (nameMatch > 0) {
+                wholeWords += nameMatch - 1;
+                continue;
+            }
+            boolean anyVariant = false;
+            boolean whole = false;
+            for (int v = 0; v < variants.length; v++) {
+                int variantMatch = variants[v] ? find(group.variantTerms[v], word) : 0;
+                variants[v] = variantMatch > 0;
+                anyVariant |= variants[v];
+                whole |= variantMatch > 1;
+            }
+            if (!anyVariant) {
+                return null;
+            }
+            if (whole) {
+                wholeWords++;
+            }
+        }
+        return new Match(id, wholeWords, variants);
+    }
+
+    /** 0 if no term starts with {@code word}, 2 if one equals it, 1 otherwise. */
+    private static int find(String[] terms, String word) {
+        int found = 0;
+        for (String term : terms) {
+            if (term.startsWith(word)) {
+                if (term.length() == word.length()) {
+                    return 2;
+                }
+                found = 1;
+            }
+        }
+        return found;
+    }
+
+    private static ProductGroup toResult(ProductCatalog catalog, Group group, boolean[] variants) {
+        Set<String> sizes = new LinkedHashSet<>();
+        Set<String> colors = new LinkedHashSet<>();
+        List<Integer> skus = new ArrayList<>();
+        double minPrice = Double.MAX_VALUE;
+        double maxPrice = -Double.MAX_VALUE;
+        Integer imageId = null;
+        for (int v = 0; v < variants.length; v++) {
+            Product product = variants[v] ? catalog.getBySku(group.skus[v]) : null;
+            if (product == null) {
+                continue;
+            }
+            skus.add(product.getSku());
+            sizes.add(product.getSize());
+            colors.add(product.getColor());
+            if (product.getPrice() != null) {
+                minPrice = Math.min(minPrice, product.getPrice());
+                maxPrice = Math.max(maxPrice, product.getPrice());
+            }
+            if (imageId == null) {
+                imageId = product.getProductImageId();
+            }
+        }
+        if (skus.isEmpty()) {
+            return null;
+        }
+        ProductGroup result = new ProductGroup();
+        result.setProductName(group.name);
+        result.setProductImageId(imageId);
+        result.setMinPrice(minPrice == Double.MAX_VALUE ? null : minPrice);
+        result.setMaxPrice(minPrice == Double.MAX_VALUE ? null : maxPrice);
+        result.setSizes(new ArrayList<>(sizes));
+        result.setColors(new ArrayList<>(colors));
+        result.setSkus(skus);
+        return result;
+    }
+
+    /** Lower-cased runs of letters and digits, shared through {@code canonical} to save memory. */
+    static String[] terms(String text, Map<String, String> canonical) {
+        if (text == null || text.isEmpty()) {
+            return NO_TERMS;
+        }
+        List<String> terms = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+                terms.add(canonical.computeIfAbsent(term, t -> t));
+                start = -1;
+            }
+        }
+        return terms.toArray(NO_TERMS);
+    }
+
+    private static void addGrams(String[] terms, Set<String> grams) {
+        for (String term : terms) {
+            for (int length = 1; length <= Math.min(MAX_GRAM, term.length()); length++) {
+                grams.add(term.substring(0, length));
+            }
+        }
+    }
+
+    private record Group(String name, String[] nameTerms, int[] skus, String[][] variantTerms) {
+    }
+
+    private record Match(int id, int wholeWords, boolean[] variants) {
+    }
+
+    private static final class GroupBuilder {
+        final String key;
+        final String name;
+        final String[] nameTerms;
+        final IntList skus = new IntList();
+        final List<String[]> variantTerms = new ArrayList<>();
+
+        GroupBuilder(String key, String name, String[] nameTerms) {
+            this.key = key;
+            this.name = name;
+            this.nameTerms = nameTerms;
+        }
+
+        void add(Product product, Map<String, String> canonical) {
+            String[] size = terms(product.getSize(), canonical);
+            String[] color = terms(product.getColor(), canonical);
+            String[] both = Arrays.copyOf(size, size.length + color.length);
+            System.arraycopy(color, 0, both, size.length, color.length);
+            skus.add(product.getSku());
+            variantTerms.add(both);
+        }
+
+        Group build() {
+            return new Group(name, nameTerms, skus.toArray(), variantTerms.toArray(new String[0][]));
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
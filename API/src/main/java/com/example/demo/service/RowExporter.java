@@ -0,0 +1,214 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams whole tables to an {@link OutputStream} as NDJSON or CSV. Rows are read through a
+ * forward-only cursor with a fixed fetch size inside a read-only transaction (PostgreSQL only
+ * uses a server-side cursor when autocommit is off) and written straight from the
+ * {@link ResultSet}, so no entities or lists are built and heap use does not grow with the
+ * table.
+ * <p>
+ * Field names match the JSON of the {@code Order} and {@code Customer} entities.
+ */
+@Component
+public class RowExporter {
+    private static final Column[] ORDER_COLUMNS = {
+            new Column("orderSk", "tracking_number"),
+            new Column("sku", "sku"),
+            new Column("status", "status"),
+            new Column("shippingId", "shipping_sk"),
+            new Column("customerId", "customer_sk"),
+            new Column("orderNumber", "order_number")};
+    private static final Column[] CUSTOMER_COLUMNS = {
+            new Column("customerId", "customer_sk"),
+            new Column("firstName", "first_name"),
+            new Column("lastName", "last_name"),
+            new Column("emailAddress", "email_address"),
+            new Column("phoneNumber", "phone_number")};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RowExporter(DataSource dataSource,
+                       PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper,
+                       @Value("${demo.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Orders in tracking-number order, optionally limited to one status ({@code *} for all)
+     * and an id range (inclusive).
+     */
+    public long exportOrders(OutputStream out, RowFormat format, String status, Integer from, Integer to) throws IOException {
+        Query query = new Query("tracking_number", from, to);
+        if (status != null && !status.isBlank() && !status.equals("*")) {
+            query.where("\"status\" = ?", status);
+        }
+        return export(out, format, "order", ORDER_COLUMNS, query);
+    }
+
+    /** Customers in id order, optionally limited to an id range (inclusive). */
+    public long exportCustomers(OutputStream out, RowFormat format, Integer from, Integer to) throws IOException {
+        return export(out, format, "customer", CUSTOMER_COLUMNS, new Query("customer_sk", from, to));
+    }
+
+    private long export(OutputStream out, RowFormat format, String table, Column[] columns, Query query) throws IOException {
+        StringBuilder sql = new StringBuilder("select ");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append('"').append(columns[i].column()).append('"');
+        }
+        sql.append(" from \"seis739finalschema\".\"").append(table).append('"');
+        for (int i = 0; i < query.conditions.size(); i++) {
+            sql.append(i == 0 ? " where " : " and ").append(query.conditions.get(i));
+        }
+        sql.append(" order by \"").append(query.idColumn).append('"');
+
+        RowWriter writer = format == RowFormat.CSV ? new CsvWriter(out, columns) : new JsonWriter(out, columns);
+        long[] rows = new long[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }, query.params.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.close();
+        return rows[0];
+    }
+
+    private record Column(String name, String column) {
+    }
+
+    private static final class Query {
+        final String idColumn;
+        final List<String> conditions = new ArrayList<>();
+        final List<Object> params = new ArrayList<>();
+
+        Query(String idColumn, Integer from, Integer to) {
+            this.idColumn = idColumn;
+            if (from != null) {
+                where("\"" + idColumn + "\" >= ?", from);
+            }
+            if (to != null) {
+                where("\"" + idColumn + "\" <= ?", to);
+            }
+        }
+
+        void where(String condition, Object param) {
+            conditions.add(condition);
+            params.add(param);
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void close() throws IOException;
+    }
+
+    private final class JsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final Column[] columns;
+        private boolean written;
+
+        JsonWriter(OutputStream out, Column[] columns) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                generator.writeFieldName(columns[i].name());
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            written = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (written) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+        private final Column[] columns;
+
+        CsvWriter(OutputStream out, Column[] columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.columns = columns;
+            for (int i = 0; i < columns.length; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write(columns[i].name());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                writer.write(i == 0 ? "" : ",");
+                if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+}
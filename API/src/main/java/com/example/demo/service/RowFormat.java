@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/** Line-oriented formats used for bulk import and export. */
+public enum RowFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(new MediaType("application", "x-ndjson"));
+
+    private final MediaType mediaType;
+
+    RowFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /** The format for a request content type, or null if it is neither CSV nor NDJSON. */
+    public static RowFormat forContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return switch (type) {
+            case "text/csv" -> CSV;
+            case "application/x-ndjson", "application/ndjson" -> NDJSON;
+            default -> null;
+        };
+    }
+
+    /** The format named by a {@code format} request parameter, or null if it is unknown. */
+    public static RowFormat forName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "ndjson", "jsonl" -> NDJSON;
+            default -> null;
+        };
+    }
+}
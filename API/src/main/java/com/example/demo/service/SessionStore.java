@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Customer;
+import com.example.demo.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory sessions issued at login, holding the {@link User} and {@link Customer} so that
+ * authenticated requests are served without querying either table. Tokens are a random id
+ * plus its HMAC-SHA256 signature, so forged tokens are rejected without a lookup.
+ * <p>
+ * Sessions expire a fixed {@code ttl} after login, which makes creation order also expiry
+ * order: one index by creation sequence drives both the expiry sweep and eviction of the
+ * oldest sessions once more than {@code max-sessions} are live, and logout removes its entry.
+ * An index from customer id to tokens lets a customer update reach that customer's sessions
+ * without scanning the others.
+ */
+@Component
+public class SessionStore {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final ConcurrentHashMap<String, Live> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<String>> tokensByCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, String> byCreation = new ConcurrentSkipListMap<>();
+    private final AtomicLong created = new AtomicLong();
+    private final SecureRandom random = new SecureRandom();
+    private final Mac prototype;
+    private final int maxSessions;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Counter expired;
+    private final Counter evicted;
+
+    @Autowired
+    public SessionStore(MeterRegistry meterRegistry,
+                        @Value("${demo.session.secret:}") String secret,
+                        @Value("${demo.session.max-sessions:100000}") int maxSessions,
+                        @Value("${demo.session.ttl:30m}") Duration ttl) {
+        this(meterRegistry, secret, maxSessions, ttl, Clock.systemUTC());
+    }
+
+    SessionStore(MeterRegistry meterRegistry, String secret, int maxSessions, Duration ttl, Clock clock) {
+        this.prototype = mac(secret);
+        this.maxSessions = maxSessions;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.expired = Counter.builder("session.evictions")
+                .description("Sessions removed before logout")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("session.evictions")
+                .description("Sessions removed before logout")
+                .tag("cause", "capacity")
+                .register(meterRegistry);
+        Gauge.builder("session.active", sessions, ConcurrentHashMap::size)
+                .description("Live sessions")
+                .register(meterRegistry);
+    }
+
+    private Mac mac(String secret) {
+        byte[] key = new byte[32];
+        if (secret == null || secret.isEmpty()) {
+            random.nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public Session create(User user, Customer customer) {
+        Instant now = clock.instant();
+        sweep(now);
+        byte[] id = new byte[18];
+        random.nextBytes(id);
+        String sessionId = ENCODER.encodeToString(id);
+        Session session = new Session(sessionId + "." + ENCODER.encodeToString(sign(sessionId)),
+                user, customer, now.plus(ttl));
+        long sequence = created.incrementAndGet();
+        sessions.put(session.token(), new Live(session, sequence));
+        if (session.customerId() != null) {
+            tokensByCustomer.compute(session.customerId(), (customerId, tokens) -> {
+                Set<String> set = tokens == null ? ConcurrentHashMap.newKeySet() : tokens;
+                set.add(session.token());
+                return set;
+            });
+        }
+        byCreation.put(sequence, session.token());
+        while (sessions.size() > maxSessions) {
+            Map.Entry<Long, String> oldest = byCreation.pollFirstEntry();
+            if (oldest == null) {
+                break;
+            }
+            if (drop(oldest.getValue()) != null) {
+                evicted.increment();
+            }
+        }
+        return session;
+    }
+
+    /** Returns the live session for {@code token}, or null if it is unknown, forged or expired. */
+    public Session get(String token) {
+        if (token == null || !verify(token)) {
+            return null;
+        }
+        Live live = sessions.get(token);
+        if (live == null) {
+            return null;
+        }
+        Session session = live.session();
+        if (!clock.instant().isBefore(session.expiresAt())) {
+            if (drop(token) != null) {
+                expired.increment();
+            }
+            return null;
+        }
+        return session;
+    }
+
+    public void remove(String token) {
+        if (token != null) {
+            drop(token);
+        }
+    }
+
+    /** Replaces the customer held by every live session of that customer. */
+    public void updateCustomer(Customer customer) {
+        Set<String> tokens = customer.getCustomerId() == null ? null : tokensByCustomer.get(customer.getCustomerId());
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            sessions.computeIfPresent(token, (t, live) -> new Live(
+                    new Session(t, live.session().user(), customer, live.session().expiresAt()), live.sequence()));
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void sweep(Instant now) {
+        Map.Entry<Long, String> oldest;
+        while ((oldest = byCreation.firstEntry()) != null) {
+            Live live = sessions.get(oldest.getValue());
+            if (live != null && now.isBefore(live.session().expiresAt())) {
+                break;
+            }
+            if (byCreation.remove(oldest.getKey(), oldest.getValue()) && drop(oldest.getValue()) != null) {
+                expired.increment();
+            }
+        }
+    }
+
+    private Session drop(String token) {
+        Live live = sessions.remove(token);
+        if (live == null) {
+            return null;
+        }
+        byCreation.remove(live.sequence());
+        Session session = live.session();
+        if (session.customerId() != null) {
+            tokensByCustomer.computeIfPresent(session.customerId(), (customerId, tokens) -> {
+                tokens.remove(token);
+                return tokens.isEmpty() ? null : tokens;
+            });
+        }
+        return session;
+    }
+
+    private boolean verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        byte[] expected = ENCODER.encode(sign(token.substring(0, dot)));
+        byte[] actual = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private byte[] sign(String sessionId) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(sessionId.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC-SHA256 cannot be cloned", e);
+        }
+    }
+
+    private record Live(Session session, long sequence) {
+    }
+
+    public record Session(String token, User user, Customer customer, Instant expiresAt) {
+        public Integer customerId() {
+            return user.getCustomerId();
+        }
+    }
+}
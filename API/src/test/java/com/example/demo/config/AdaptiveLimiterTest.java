@@ -0,0 +1,55 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+    private static final long MS = 1_000_000;
+
+    @Test
+    void rejectsOnceLimitIsInFlight() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 100 * MS, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(0, 10 * MS, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void fastSaturatedRequestsRaiseTheLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 100 * MS, 0.5);
+
+        for (int i = 0; i < 40; i++) {
+            while (limiter.tryAcquire()) {
+            }
+            limiter.release(i * MS, i * MS + MS, false);
+        }
+
+        assertTrue(limiter.getLimit() > 4);
+        assertTrue(limiter.getLimit() <= 10);
+    }
+
+    @Test
+    void slowBurstBacksOffOnceAndNeverBelowMinimum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 2, 32, 100 * MS, 0.5);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        for (int i = 0; i < 16; i++) {
+            limiter.release(0, 500 * MS + i, false);
+        }
+        assertEquals(8, limiter.getLimit());
+
+        for (int round = 1; round <= 5; round++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(round * 1000 * MS, round * 1000 * MS + 1, true);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionControl admissionControl(boolean enabled) {
+        return new AdmissionControl(meterRegistry, enabled, 1, 1, 1, Duration.ofMillis(250), 0.9,
+                100, 100, 100, 100, 100, 2);
+    }
+
+    private double rejected(String workload, String reason) {
+        return meterRegistry.find("admission.rejected").tag("workload", workload).tag("reason", reason)
+                .counter().count();
+    }
+
+    @Test
+    void adminHasItsOwnConcurrencyLimit() {
+        AdmissionControl admissionControl = admissionControl(true);
+
+        assertEquals(0, admissionControl.admit(WorkloadClass.STOREFRONT, "a"));
+        assertEquals(1, admissionControl.admit(WorkloadClass.STOREFRONT, "a"));
+        assertEquals(0, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+        assertEquals(0, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+        assertEquals(1, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+
+        admissionControl.release(WorkloadClass.ADMIN, System.nanoTime(), false);
+
+        assertEquals(0, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+        assertEquals(1.0, rejected("storefront", "concurrency"));
+        assertEquals(1.0, rejected("admin", "concurrency"));
+    }
+
+    @Test
+    void slowAdminRequestsDoNotShrinkTheAdminLimit() {
+        AdmissionControl admissionControl = admissionControl(true);
+        assertEquals(0, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+
+        admissionControl.release(WorkloadClass.ADMIN, System.nanoTime() - Duration.ofSeconds(5).toNanos(), false);
+
+        assertEquals(0, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+        assertEquals(0, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+    }
+
+    @Test
+    void disabledAdmitsEverything() {
+        AdmissionControl admissionControl = admissionControl(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, admissionControl.admit(WorkloadClass.STOREFRONT, "a"));
+            assertEquals(0, admissionControl.admit(WorkloadClass.ADMIN, "a"));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.BulkheadFullException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private BulkheadDataSource dataSource;
+
+    private BulkheadDataSource dataSource() {
+        Map<WorkloadClass, HikariDataSource> pools = new EnumMap<>(WorkloadClass.class);
+        Map<WorkloadClass, Integer> queueCapacities = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1");
+            pool.setPoolName(workload.poolName());
+            pool.setMaximumPoolSize(1);
+            pool.setConnectionTimeout(5000);
+            pools.put(workload, pool);
+            queueCapacities.put(workload, 1);
+        }
+        dataSource = new BulkheadDataSource(pools, queueCapacities, meterRegistry);
+        return dataSource;
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    private Connection connect(WorkloadClass workload) throws Exception {
+        try (WorkloadClass.Scope scope = workload.enter()) {
+            return dataSource.getConnection();
+        }
+    }
+
+    private double waiting(WorkloadClass workload) {
+        return meterRegistry.find("bulkhead.waiting").tag("pool", workload.poolName()).gauge().value();
+    }
+
+    @Test
+    void fullQueueIsRejectedAtOnceWithoutTouchingOtherPools() throws Exception {
+        dataSource();
+        Connection held = connect(WorkloadClass.ADMIN);
+        Future<Connection> queued = callers.submit(() -> connect(WorkloadClass.ADMIN));
+        while (waiting(WorkloadClass.ADMIN) < 1) {
+            Thread.sleep(1);
+        }
+
+        long start = System.nanoTime();
+        assertThrows(BulkheadFullException.class, () -> connect(WorkloadClass.ADMIN));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, meterRegistry.find("bulkhead.rejected").tag("pool", "admin").counter().count());
+
+        try (Connection checkout = connect(WorkloadClass.CHECKOUT)) {
+            assertFalse(checkout.isClosed());
+        }
+
+        held.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, waiting(WorkloadClass.ADMIN));
+    }
+
+    @Test
+    void threadsWithoutAClassUseTheStorefrontPool() throws Exception {
+        dataSource();
+        Connection storefront = connect(WorkloadClass.STOREFRONT);
+        Future<Connection> unclassified = callers.submit(() -> dataSource.getConnection());
+        while (waiting(WorkloadClass.STOREFRONT) < 1) {
+            Thread.sleep(1);
+        }
+
+        storefront.close();
+        unclassified.get(5, TimeUnit.SECONDS).close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadReplicaDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReadReplicaDataSource dataSource;
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource db = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(db);
+        jdbc.execute("create table if not exists marker (name varchar(20))");
+        jdbc.execute("delete from marker");
+        jdbc.update("insert into marker values (?)", name);
+        return db;
+    }
+
+    private ReadReplicaDataSource dataSource(DataSource replica, String lagQuery) {
+        dataSource = new ReadReplicaDataSource(database("primary"), replica, meterRegistry,
+                lagQuery, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        dataSource.check();
+        return dataSource;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    private String read(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from marker", String.class));
+    }
+
+    private double fallbacks() {
+        return meterRegistry.find("datasource.replica.fallbacks").counter().count();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        dataSource(database("replica"), "select 0");
+
+        assertTrue(dataSource.isReplicaAvailable());
+        assertEquals("replica", read(true));
+        assertEquals("primary", read(false));
+        assertEquals(0, fallbacks());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        dataSource(database("replica"), "select 30");
+
+        assertFalse(dataSource.isReplicaAvailable());
+        assertEquals("primary", read(true));
+        assertEquals(1, fallbacks());
+        assertEquals(30, meterRegistry.find("datasource.replica.lag").gauge().value());
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() throws SQLException {
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("connection refused"));
+        dataSource(down, "select 0");
+
+        assertFalse(dataSource.isReplicaAvailable());
+        assertEquals("primary", read(true));
+    }
+
+    @Test
+    void onPrimaryBypassesReplica() {
+        dataSource(database("replica"), "select 0");
+
+        assertEquals("primary", ReadReplicaDataSource.onPrimary(() -> read(true)));
+        assertEquals("replica", read(true));
+        assertEquals(0, fallbacks());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketsTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        TokenBuckets buckets = new TokenBuckets(2, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryTake("a", 0));
+        }
+        assertEquals(SECOND / 2, buckets.tryTake("a", 0));
+
+        assertEquals(0, buckets.tryTake("a", SECOND / 2));
+        assertTrue(buckets.tryTake("a", SECOND / 2) > 0);
+    }
+
+    @Test
+    void clientsHaveTheirOwnBuckets() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 100);
+
+        assertEquals(0, buckets.tryTake("a", 0));
+        assertTrue(buckets.tryTake("a", 0) > 0);
+        assertEquals(0, buckets.tryTake("b", 0));
+    }
+
+    @Test
+    void dropsFullBucketsPastMaxClients() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 2);
+        buckets.tryTake("a", 0);
+        buckets.tryTake("b", 0);
+
+        buckets.tryTake("c", 10 * SECOND);
+
+        assertEquals(1, buckets.size());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkloadAspectTest {
+
+    @Workload(WorkloadClass.STOREFRONT)
+    static class Service {
+        WorkloadClass browse() {
+            return WorkloadClass.current();
+        }
+
+        @Workload(WorkloadClass.ADMIN)
+        WorkloadClass scan() {
+            return WorkloadClass.current();
+        }
+    }
+
+    private Service proxy() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Service());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new WorkloadAspect());
+        return factory.getProxy();
+    }
+
+    @Test
+    void methodAnnotationOverridesClassAnnotation() {
+        Service service = proxy();
+
+        try (WorkloadClass.Scope scope = WorkloadClass.CHECKOUT.enter()) {
+            assertEquals(WorkloadClass.STOREFRONT, service.browse());
+            assertEquals(WorkloadClass.ADMIN, service.scan());
+            assertEquals(WorkloadClass.CHECKOUT, WorkloadClass.current());
+        }
+        assertEquals(WorkloadClass.STOREFRONT, WorkloadClass.current());
+    }
+}
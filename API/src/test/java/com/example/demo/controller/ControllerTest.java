@@ -1,8 +1,30 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.AdmissionControl;
+import com.example.demo.config.WorkloadClass;
 import com.example.demo.model.*;
+import com.example.demo.model.request.CheckoutRequest;
+import com.example.demo.model.request.ProductFilter;
+import com.example.demo.model.response.AdminOrderRow;
+import com.example.demo.model.response.BatchRowResult;
+import com.example.demo.model.response.BatchUpdateResponse;
+import com.example.demo.model.response.CheckoutResponse;
+import com.example.demo.model.response.CustomerBootstrap;
+import com.example.demo.model.response.FacetedSearchResponse;
+import com.example.demo.model.response.ImportResponse;
+import com.example.demo.model.response.LoginResponse;
+import com.example.demo.model.response.OrderStatsResponse;
+import com.example.demo.model.response.OrderSummary;
+import com.example.demo.model.response.PageResponse;
+import com.example.demo.model.response.ProductGroup;
 import com.example.demo.model.response.Response;
+import com.example.demo.model.response.StatsCheckResponse;
+import com.example.demo.model.response.VariantMatrix;
 import com.example.demo.service.ApiService;
+import com.example.demo.service.CatalogPayload;
+import com.example.demo.service.ProductCatalog;
+import com.example.demo.service.RowFormat;
+import com.example.demo.service.SessionStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -11,12 +33,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,37 +63,261 @@ class ControllerTest {
     @MockBean
     private ApiService apiService;
 
+    @MockBean
+    private AdmissionControl admissionControl;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
-    void login_returnsCustomerIdInResponse() throws Exception {
+    void login_returnsCustomerIdAndTokenInResponse() throws Exception {
         User request = new User();
         request.setUserID("user1");
         request.setUserPass("pass");
 
-        User returned = new User();
-        returned.setCustomerId(123);
-        Mockito.when(apiService.getUserByCreds("user1", "pass")).thenReturn(returned);
+        LoginResponse returned = new LoginResponse();
+        returned.setMessage("123");
+        returned.setToken("abc.def");
+        Mockito.when(apiService.login("user1", "pass")).thenReturn(returned);
 
         mockMvc.perform(post("/api/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("123"));
+                .andExpect(jsonPath("$.message").value("123"))
+                .andExpect(jsonPath("$.token").value("abc.def"));
+
+        Mockito.verify(apiService, times(1)).login("user1", "pass");
+    }
+
+    private static SessionStore.Session session(int customerId) {
+        User user = new User();
+        user.setCustomerId(customerId);
+        Customer customer = new Customer();
+        customer.setCustomerId(customerId);
+        customer.setFirstName("Joe");
+        return new SessionStore.Session("abc.def", user, customer, Instant.now().plusSeconds(60));
+    }
+
+    @Test
+    void getSession_returnsCustomerForBearerToken() throws Exception {
+        Mockito.when(apiService.getSession("abc.def")).thenReturn(session(10));
+
+        mockMvc.perform(get("/api/session").header("Authorization", "Bearer abc.def"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(10))
+                .andExpect(jsonPath("$.firstName").value("Joe"));
+
+        mockMvc.perform(get("/api/session"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void getCustomer_usesSessionInsteadOfRepository() throws Exception {
+        Mockito.when(apiService.getSession("abc.def")).thenReturn(session(10));
+
+        mockMvc.perform(get("/api/customer").param("customerID", "10")
+                        .header("Authorization", "Bearer abc.def"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Joe"));
+
+        Mockito.verify(apiService, times(0)).getCustomerById(anyInt());
+    }
+
+    @Test
+    void getCustomerBootstrap_returnsCustomerAddressesAndOrders() throws Exception {
+        Customer customer = new Customer();
+        customer.setCustomerId(10);
+        Shipping shipping = new Shipping();
+        shipping.setShippingId(3);
+        Order order = new Order();
+        order.setOrderSk(7);
+        CustomerBootstrap bootstrap = new CustomerBootstrap();
+        bootstrap.setCustomer(customer);
+        bootstrap.setShippingAddresses(List.of(shipping));
+        bootstrap.setRecentOrders(List.of(order));
+        Mockito.when(apiService.getCustomerBootstrap(10, 5, "abc.def")).thenReturn(bootstrap);
+
+        mockMvc.perform(get("/api/customer/10/bootstrap").param("orders", "5")
+                        .header("Authorization", "Bearer abc.def"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.customerId").value(10))
+                .andExpect(jsonPath("$.shippingAddresses[0].shippingId").value(3))
+                .andExpect(jsonPath("$.recentOrders[0].orderSk").value(7));
+    }
+
+    @Test
+    void getAdminOrders_returnsJoinedRowsPage() throws Exception {
+        AdminOrderRow row = new AdminOrderRow();
+        row.setOrderSk(7);
+        row.setLastName("Smith");
+        row.setCity("Springfield");
+        PageResponse<AdminOrderRow> page = new PageResponse<>();
+        page.setItems(List.of(row));
+        page.setNextCursor(7);
+        page.setLimit(1);
+        Mockito.when(apiService.getAdminOrderPage("SHIPPED", "asc", 3, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/admin/orders").param("status", "SHIPPED").param("sort", "asc")
+                        .param("after", "3").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].orderSk").value(7))
+                .andExpect(jsonPath("$.items[0].lastName").value("Smith"))
+                .andExpect(jsonPath("$.items[0].city").value("Springfield"))
+                .andExpect(jsonPath("$.nextCursor").value(7));
+    }
+
+    @Test
+    void getOrder_returnsHeaderAndLines() throws Exception {
+        OrderSummary order = new OrderSummary();
+        order.setOrderNumber("1700000000001");
+        order.setStatus("SHIPPED");
+        order.setItemCount(2);
+        order.setTotal(45.5);
+        Mockito.when(apiService.getOrder("1700000000001", 5)).thenReturn(order);
+
+        mockMvc.perform(get("/api/order/1700000000001").param("customerId", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SHIPPED"))
+                .andExpect(jsonPath("$.itemCount").value(2))
+                .andExpect(jsonPath("$.total").value(45.5));
+    }
+
+    @Test
+    void getOrderHistory_returnsGroupedPage() throws Exception {
+        OrderSummary order = new OrderSummary();
+        order.setOrderNumber("1700000000001");
+        PageResponse<OrderSummary> page = new PageResponse<>();
+        page.setItems(List.of(order));
+        page.setNextCursor(7);
+        page.setLimit(1);
+        Mockito.when(apiService.getOrderHistory(5, 9, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/customer/5/orders").param("after", "9").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].orderNumber").value("1700000000001"))
+                .andExpect(jsonPath("$.nextCursor").value(7));
+    }
 
-        Mockito.verify(apiService, times(1)).getUserByCreds("user1", "pass");
+    @Test
+    void getStats_returnsCountersWithoutQueries() throws Exception {
+        OrderStatsResponse stats = new OrderStatsResponse();
+        stats.setSeeded(true);
+        stats.setTotalOrders(3);
+        stats.setOrdersByStatus(Map.of("ORDERED", 2L, "SHIPPED", 1L));
+        stats.setTopSkus(Map.of(12300, 2L));
+        Mockito.when(apiService.getOrderStats(5)).thenReturn(stats);
+
+        mockMvc.perform(get("/api/stats").param("top", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalOrders").value(3))
+                .andExpect(jsonPath("$.ordersByStatus.ORDERED").value(2))
+                .andExpect(jsonPath("$.topSkus.12300").value(2));
+    }
+
+    @Test
+    void checkStats_reportsRecountResult() throws Exception {
+        StatsCheckResponse check = new StatsCheckResponse();
+        check.setConsistent(false);
+        check.setMessage("inconsistent");
+        check.setMismatches(List.of("status SHIPPED: counter 2, database 1"));
+        Mockito.when(apiService.checkOrderStats()).thenReturn(check);
+
+        mockMvc.perform(get("/api/stats/check"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent").value(false))
+                .andExpect(jsonPath("$.mismatches[0]").value("status SHIPPED: counter 2, database 1"));
+    }
+
+    @Test
+    void logout_removesBearerSession() throws Exception {
+        Response ok = new Response();
+        ok.setMessage("success");
+        Mockito.when(apiService.logout("abc.def")).thenReturn(ok);
+
+        mockMvc.perform(post("/api/logout").header("Authorization", "Bearer abc.def"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("success"));
+    }
+
+    private CatalogPayload payload(long version, Product... products) {
+        return CatalogPayload.of(ProductCatalog.of(version, List.of(products)), objectMapper);
     }
 
     @Test
     void getProducts_returnsList() throws Exception {
         Product p = new Product();
-        Mockito.when(apiService.getAllProduct()).thenReturn(List.of(p));
+        p.setSku(1);
+        Mockito.when(apiService.getCatalogPayload()).thenReturn(payload(1, p));
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0]").exists());
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[0].sku").value(1));
+
+        Mockito.verify(apiService, times(1)).getCatalogPayload();
+    }
+
+    @Test
+    void getProducts_returnsGzipBytesWhenAccepted() throws Exception {
+        Product p = new Product();
+        p.setSku(1);
+        CatalogPayload payload = payload(1, p);
+        Mockito.when(apiService.getCatalogPayload()).thenReturn(payload);
+
+        byte[] body = mockMvc.perform(get("/api/products").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertArrayEquals(payload.getJson(), in.readAllBytes());
+        }
+
+        mockMvc.perform(get("/api/products").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void getProducts_returnsNotModifiedForCurrentEtag() throws Exception {
+        Mockito.when(apiService.getCatalogVersion()).thenReturn(7L);
+        Mockito.when(apiService.getCatalogPayload()).thenReturn(payload(7, new Product()));
+
+        String etag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", etag).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk());
+
+        Mockito.when(apiService.getCatalogVersion()).thenReturn(8L);
+        Mockito.when(apiService.getCatalogPayload()).thenReturn(payload(8, new Product()));
+        mockMvc.perform(get("/api/products").header("If-None-Match", etag))
+                .andExpect(status().isOk());
 
-        Mockito.verify(apiService, times(1)).getAllProduct();
+        Mockito.verify(apiService, times(3)).getCatalogPayload();
+    }
+
+    @Test
+    void getCustomer_returnsNotModifiedWithoutLoadingCustomer() throws Exception {
+        Mockito.when(apiService.getCustomerVersion(10)).thenReturn(2L);
+        Mockito.when(apiService.getCustomerById(10)).thenReturn(new Customer());
+
+        String etag = mockMvc.perform(get("/api/customer").param("customerID", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/customer").param("customerID", "10").header("If-None-Match", "W/" + etag))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(apiService, times(1)).getCustomerById(10);
     }
 
     @Test
@@ -99,6 +356,43 @@ class ControllerTest {
         Mockito.verify(apiService, times(1)).getProductByProductName("Widget");
     }
 
+    @Test
+    void searchProducts_returnsGroups() throws Exception {
+        ProductGroup group = new ProductGroup();
+        group.setProductName("Guardian Of Shadows");
+        group.setSkus(List.of(1, 2));
+        Mockito.when(apiService.searchProducts("guard bla", 5)).thenReturn(List.of(group));
+
+        mockMvc.perform(get("/api/product/search").param("q", "guard bla").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productName").value("Guardian Of Shadows"))
+                .andExpect(jsonPath("$[0].skus[1]").value(2));
+    }
+
+    @Test
+    void searchCatalog_bindsFiltersAndReturnsFacets() throws Exception {
+        FacetedSearchResponse response = new FacetedSearchResponse();
+        response.setItems(List.of(new Product()));
+        response.setTotal(1);
+        response.setSizes(Map.of("Small", 1));
+        Mockito.when(apiService.searchCatalog(any(ProductFilter.class))).thenReturn(response);
+
+        mockMvc.perform(get("/api/products/search")
+                        .param("size", "Small", "Large")
+                        .param("color", "Black")
+                        .param("minPrice", "10")
+                        .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.sizes.Small").value(1));
+
+        Mockito.verify(apiService).searchCatalog(argThat(filter -> filter.getSize().equals(List.of("Small", "Large"))
+                && filter.getColor().equals(List.of("Black"))
+                && filter.getMinPrice() == 10.0
+                && filter.getMaxPrice() == null
+                && Boolean.TRUE.equals(filter.getInStock())));
+    }
+
     @Test
     void getOrders_byCustomerId() throws Exception {
         Order o = new Order();
@@ -125,14 +419,31 @@ class ControllerTest {
 
     @Test
     void getOrders_byStatus_all() throws Exception {
-        Order o = new Order();
-        Mockito.when(apiService.getAllOrders()).thenReturn(List.of(o));
+        PageResponse<Order> page = new PageResponse<>();
+        page.setItems(List.of(new Order()));
+        Mockito.when(apiService.getOrderPage(null, null, null, null)).thenReturn(page);
 
         mockMvc.perform(get("/api/ordersByParam").param("status", "*"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0]").exists());
 
-        Mockito.verify(apiService, times(1)).getAllOrders();
+        Mockito.verify(apiService, times(1)).getOrderPage(null, null, null, null);
+    }
+
+    @Test
+    void getOrders_byStatus_all_passesCursorAndLimit() throws Exception {
+        PageResponse<Order> page = new PageResponse<>();
+        page.setItems(List.of(new Order()));
+        Mockito.when(apiService.getOrderPage(null, null, 41, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/ordersByParam")
+                        .param("status", "*")
+                        .param("after", "41")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").exists());
+
+        Mockito.verify(apiService, times(1)).getOrderPage(null, null, 41, 1);
     }
 
     @Test
@@ -147,6 +458,40 @@ class ControllerTest {
         Mockito.verify(apiService, times(1)).getOrdersByStatus("SHIPPED");
     }
 
+    @Test
+    void getOrderPage_passesCursorAndFilters() throws Exception {
+        PageResponse<Order> page = new PageResponse<>();
+        page.setItems(List.of(new Order()));
+        page.setNextCursor(42);
+        page.setLimit(1);
+        Mockito.when(apiService.getOrderPage(null, "ORDERED", 41, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/ordersByParam/page")
+                        .param("status", "ORDERED")
+                        .param("after", "41")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0]").exists())
+                .andExpect(jsonPath("$.nextCursor").value(42));
+
+        Mockito.verify(apiService, times(1)).getOrderPage(null, "ORDERED", 41, 1);
+    }
+
+    @Test
+    void getProductPage_returnsPage() throws Exception {
+        PageResponse<Product> page = new PageResponse<>();
+        page.setItems(List.of(new Product()));
+        page.setLimit(100);
+        Mockito.when(apiService.getProductPage(null, null)).thenReturn(page);
+
+        mockMvc.perform(get("/api/products/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0]").exists())
+                .andExpect(jsonPath("$.limit").value(100));
+
+        Mockito.verify(apiService, times(1)).getProductPage(null, null);
+    }
+
     @Test
     void addProduct_endpoint() throws Exception {
         Product p = new Product();
@@ -211,6 +556,22 @@ class ControllerTest {
         Mockito.verify(apiService, times(1)).getSkuByProduct("Name", "L", "Red");
     }
 
+    @Test
+    void getVariants_returnsMatrix() throws Exception {
+        VariantMatrix matrix = new VariantMatrix();
+        matrix.setProductName("Name");
+        matrix.setSizes(List.of("L"));
+        matrix.setColors(List.of("Red"));
+        matrix.setSkus(Map.of("Red", Map.of("L", 123)));
+        Mockito.when(apiService.getVariantMatrix("Name")).thenReturn(matrix);
+
+        mockMvc.perform(get("/api/product/variants").param("name", "Name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.skus.Red.L").value(123));
+
+        Mockito.verify(apiService, times(1)).getVariantMatrix("Name");
+    }
+
     @Test
     void addPayment_endpoint() throws Exception {
         Payment p = new Payment();
@@ -259,6 +620,27 @@ class ControllerTest {
         Mockito.verify(apiService, times(1)).addOrder(any(Order.class));
     }
 
+    @Test
+    void checkout_endpoint() throws Exception {
+        CheckoutRequest request = new CheckoutRequest();
+        request.setPayment(new Payment());
+        request.setShipping(new Shipping());
+        request.setLines(List.of(new Order()));
+        CheckoutResponse resp = new CheckoutResponse();
+        resp.setShippingId(9);
+        resp.setOrderNumber("123");
+        Mockito.when(apiService.checkout(any(CheckoutRequest.class))).thenReturn(resp);
+
+        mockMvc.perform(post("/api/checkout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shippingId").value(9))
+                .andExpect(jsonPath("$.orderNumber").value("123"));
+
+        Mockito.verify(apiService, times(1)).checkout(any(CheckoutRequest.class));
+    }
+
     @Test
     void getCustomers_returnsList() throws Exception {
         Customer c = new Customer();
@@ -314,4 +696,157 @@ class ControllerTest {
 
         Mockito.verify(apiService, times(1)).updateOrder(any(Order.class));
     }
+
+    @Test
+    void updateProducts_endpoint() throws Exception {
+        Product p = new Product();
+        p.setSku(1);
+        BatchUpdateResponse resp = new BatchUpdateResponse();
+        resp.setMessage("partial");
+        resp.setUpdated(1);
+        resp.setFailed(1);
+        resp.setResults(List.of(new BatchRowResult(1, "updated"), new BatchRowResult(2, "not_found")));
+        Mockito.when(apiService.updateProducts(anyList())).thenReturn(resp);
+
+        mockMvc.perform(post("/api/update/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(p, p))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[1].outcome").value("not_found"));
+    }
+
+    @Test
+    void updateOrders_endpoint() throws Exception {
+        Order o = new Order();
+        BatchUpdateResponse resp = new BatchUpdateResponse();
+        resp.setMessage("success");
+        Mockito.when(apiService.updateOrders(anyList())).thenReturn(resp);
+
+        mockMvc.perform(post("/api/update/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(o))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("success"));
+
+        Mockito.verify(apiService, times(1)).updateOrders(anyList());
+    }
+
+    @Test
+    void importProducts_endpoint() throws Exception {
+        ImportResponse resp = new ImportResponse();
+        resp.setMessage("success");
+        resp.setImported(1);
+        Mockito.when(apiService.importProducts(any(InputStream.class), startsWith("text/csv"))).thenReturn(resp);
+
+        mockMvc.perform(post("/api/import/products")
+                        .contentType("text/csv")
+                        .content("sku,product_name,price,img_id,size,color,quantity\n1,Shirt,1,1,M,Red,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void exportOrders_streamsNdjsonByDefault() throws Exception {
+        StreamingResponseBody body = out -> out.write("{\"orderSk\":1}\n".getBytes());
+        Mockito.when(apiService.exportOrders(RowFormat.NDJSON, "SHIPPED", 1, 100)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/api/export/orders")
+                        .param("status", "SHIPPED")
+                        .param("from", "1")
+                        .param("to", "100"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"orderSk\":1}\n"));
+    }
+
+    @Test
+    void exportCustomers_csv() throws Exception {
+        StreamingResponseBody body = out -> out.write("customerId\n1\n".getBytes());
+        Mockito.when(apiService.exportCustomers(RowFormat.CSV, null, null)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/api/export/customers").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("customerId\n1\n"));
+    }
+
+    @Test
+    void export_rejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/export/orders").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void addOrder_rejectedWithRetryAfterWhenNotAdmitted() throws Exception {
+        Mockito.when(apiService.getSession("abc.def")).thenReturn(session(10));
+        Mockito.when(admissionControl.admit(WorkloadClass.STOREFRONT, "customer:10")).thenReturn(3L);
+
+        mockMvc.perform(post("/api/add/order")
+                        .header("Authorization", "Bearer abc.def")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Order())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"));
+
+        Mockito.verify(apiService, never()).addOrder(any(Order.class));
+        Mockito.verify(admissionControl, never()).release(any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void checkout_admittedPerAddressAndReleased() throws Exception {
+        CheckoutResponse resp = new CheckoutResponse();
+        resp.setMessage("success");
+        Mockito.when(apiService.checkout(any(CheckoutRequest.class))).thenReturn(resp);
+
+        mockMvc.perform(post("/api/checkout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CheckoutRequest())))
+                .andExpect(status().isOk());
+
+        Mockito.verify(admissionControl).admit(WorkloadClass.STOREFRONT, "address:127.0.0.1");
+        Mockito.verify(admissionControl).release(eq(WorkloadClass.STOREFRONT), anyLong(), eq(false));
+    }
+
+    @Test
+    void adminUpdates_admittedAgainstAdminLimits() throws Exception {
+        BatchUpdateResponse resp = new BatchUpdateResponse();
+        Mockito.when(apiService.updateProducts(anyList())).thenReturn(resp);
+
+        mockMvc.perform(post("/api/update/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new Product()))))
+                .andExpect(status().isOk());
+
+        Mockito.verify(admissionControl).admit(WorkloadClass.ADMIN, "address:127.0.0.1");
+        Mockito.verify(admissionControl).release(eq(WorkloadClass.ADMIN), anyLong(), eq(false));
+    }
+
+    @Test
+    void adminUpdates_rejectedWithRetryAfterWhenNotAdmitted() throws Exception {
+        Mockito.when(admissionControl.admit(WorkloadClass.ADMIN, "address:127.0.0.1")).thenReturn(2L);
+
+        mockMvc.perform(post("/api/update/order")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Order())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+
+        Mockito.verify(apiService, never()).updateOrder(any(Order.class));
+    }
+
+    @Test
+    void reads_bypassAdmissionControl() throws Exception {
+        mockMvc.perform(get("/api/customers"))
+                .andExpect(status().isOk());
+
+        Mockito.verifyNoInteractions(admissionControl);
+    }
 }
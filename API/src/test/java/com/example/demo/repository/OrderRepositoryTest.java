@@ -0,0 +1,121 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Customer;
+import com.example.demo.model.Order;
+import com.example.demo.model.Product;
+import com.example.demo.model.Shipping;
+import com.example.demo.model.response.AdminOrderRow;
+import com.example.demo.model.response.OrderLine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ShippingRepository shippingRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Order order(String status, Integer customerId, Integer shippingId) {
+        Order order = new Order();
+        order.setSku(12300);
+        order.setStatus(status);
+        order.setOrderNumber("1700000000000");
+        order.setCustomerId(customerId);
+        order.setShippingId(shippingId);
+        return orderRepository.save(order);
+    }
+
+    private Order line(String orderNumber, Integer sku, String status, Integer customerId) {
+        Order order = new Order();
+        order.setSku(sku);
+        order.setStatus(status);
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId(customerId);
+        return orderRepository.save(order);
+    }
+
+    @Test
+    void adminOrders_joinCustomerAndShippingInKeysetOrder() {
+        Customer customer = new Customer();
+        customer.setCustomerId(1);
+        customer.setFirstName("Joe");
+        customer.setLastName("Smith");
+        customer.setEmailAddress("joe.smith@gmail.com");
+        customerRepository.save(customer);
+        Shipping shipping = new Shipping();
+        shipping.setAddressLine1("123 Main St");
+        shipping.setCity("Springfield");
+        shipping.setStateAbbr("IL");
+        shipping.setZipCode("62701");
+        shipping.setCustomerId(1);
+        shippingRepository.save(shipping);
+        Order first = order("ORDERED", 1, shipping.getShippingId());
+        Order second = order("SHIPPED", 1, shipping.getShippingId());
+        Order orphan = order("ORDERED", null, null);
+
+        List<AdminOrderRow> newest = orderRepository.getAdminOrdersBefore(Integer.MAX_VALUE, PageRequest.of(0, 2));
+        List<AdminOrderRow> ordered = orderRepository.getAdminOrdersByStatusAfter("ORDERED", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(orphan.getOrderSk(), second.getOrderSk()),
+                newest.stream().map(AdminOrderRow::getOrderSk).toList());
+        assertNull(newest.get(0).getLastName());
+        assertEquals(List.of(first.getOrderSk(), orphan.getOrderSk()),
+                ordered.stream().map(AdminOrderRow::getOrderSk).toList());
+        AdminOrderRow row = ordered.get(0);
+        assertEquals("Joe", row.getFirstName());
+        assertEquals("Smith", row.getLastName());
+        assertEquals("123 Main St", row.getAddressLine1());
+        assertEquals("62701", row.getZipCode());
+        assertEquals(0, orderRepository.getAdminOrdersAfter(orphan.getOrderSk(), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void orderLines_joinProductsAndGroupByOrderNumber() {
+        Product product = new Product();
+        product.setSku(12300);
+        product.setProductName("Guardian Of Shadows");
+        product.setPrice(29.99);
+        product.setSize("M");
+        product.setColor("Black");
+        productRepository.save(product);
+        Order first = line("1700000000001", 12300, "SHIPPED", 1);
+        Order missing = line("1700000000001", 99999, "SHIPPED", 1);
+        Order second = line("1700000000002", 12300, "ORDERED", 1);
+        Order third = line("1700000000003", 12300, "ORDERED", 1);
+        line("1700000000002", 12300, "ORDERED", 2);
+
+        List<OrderLine> lines = orderRepository.getOrderLines("1700000000001");
+        List<String> newest = orderRepository.getOrderNumbersByCustomerId(1, Integer.MAX_VALUE, PageRequest.of(0, 2));
+        List<String> older = orderRepository.getOrderNumbersByCustomerId(1, second.getOrderSk(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(first.getOrderSk(), missing.getOrderSk()), lines.stream().map(OrderLine::getOrderSk).toList());
+        assertEquals("Guardian Of Shadows", lines.get(0).getProductName());
+        assertEquals(29.99, lines.get(0).getPrice());
+        assertEquals("Black", lines.get(0).getColor());
+        assertNull(lines.get(1).getProductName());
+        assertEquals(List.of("1700000000003", "1700000000002"), newest);
+        assertEquals(List.of("1700000000001"), older);
+        assertEquals(List.of(second.getOrderSk()), orderRepository
+                .getOrderLinesByCustomerId(1, List.of("1700000000002")).stream().map(OrderLine::getOrderSk).toList());
+        assertEquals(third.getOrderSk(), orderRepository.getOrderLinesByCustomerId(1, List.of("1700000000003")).get(0).getOrderSk());
+    }
+}
@@ -1,17 +1,45 @@
 package com.example.demo.service;
 
+import com.example.demo.exception.InsufficientStockException;
 import com.example.demo.model.*;
+import com.example.demo.model.request.CheckoutRequest;
+import com.example.demo.model.request.ProductFilter;
+import com.example.demo.model.response.AdminOrderRow;
+import com.example.demo.model.response.BatchUpdateResponse;
+import com.example.demo.model.response.CheckoutResponse;
+import com.example.demo.model.response.CustomerBootstrap;
+import com.example.demo.model.response.FacetedSearchResponse;
+import com.example.demo.model.response.ImportResponse;
+import com.example.demo.model.response.LoginResponse;
+import com.example.demo.model.response.OrderLine;
+import com.example.demo.model.response.OrderSummary;
+import com.example.demo.model.response.PageResponse;
 import com.example.demo.model.response.Response;
+import com.example.demo.model.response.VariantMatrix;
 import com.example.demo.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +65,37 @@ class ApiServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Spy
+    private ProductCatalogCache productCatalogCache = new ProductCatalogCache();
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Spy
+    private CustomerVersions customerVersions = new CustomerVersions();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private GroupCommitter groupCommitter = new GroupCommitter(mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), false, 100, Duration.ofMillis(5), 100, Duration.ofMillis(100));
+
+    @Mock
+    private OrderStats orderStats;
+
+    @Mock
+    private ProductImporter productImporter;
+
+    @Mock
+    private RowExporter rowExporter;
+
+    @Spy
+    private Executor taskExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private SessionStore sessionStore = new SessionStore(new SimpleMeterRegistry(), "secret", 100, Duration.ofMinutes(30));
+
     @InjectMocks
     private ApiService apiService;
 
@@ -52,6 +111,19 @@ class ApiServiceTest {
         verify(productRepository, times(1)).findAll();
     }
 
+    @Test
+    void getAllProduct_servesRepeatReadsFromCache() {
+        Product p = new Product();
+        p.setSku(100);
+        when(productRepository.findAll()).thenReturn(List.of(p));
+
+        apiService.getAllProduct();
+        var result = apiService.getAllProduct();
+
+        assertEquals(1, result.size());
+        verify(productRepository, times(1)).findAll();
+    }
+
     @Test
     void getCustomerById_returnsCustomer() {
         Customer c = new Customer();
@@ -89,23 +161,29 @@ class ApiServiceTest {
     @Test
     void getProductBySku_returnsProduct() {
         Product p = new Product();
-        when(productRepository.getProductBySKU(100)).thenReturn(p);
+        p.setSku(100);
+        when(productRepository.findAll()).thenReturn(List.of(p));
 
         var result = apiService.getProductBySku(100);
 
         assertSame(p, result);
-        verify(productRepository).getProductBySKU(100);
+        verify(productRepository, never()).getProductBySKU(any());
     }
 
     @Test
     void getProductByProductName_returnsFirstProduct() {
         Product p = new Product();
-        when(productRepository.getProductByProductName("Widget")).thenReturn(List.of(p));
+        p.setSku(1);
+        p.setProductName("Widget");
+        Product other = new Product();
+        other.setSku(2);
+        other.setProductName("Widget");
+        when(productRepository.findAll()).thenReturn(List.of(p, other));
 
         var result = apiService.getProductByProductName("Widget");
 
         assertSame(p, result);
-        verify(productRepository).getProductByProductName("Widget");
+        verify(productRepository, never()).getProductByProductName(any());
     }
 
     @Test
@@ -130,6 +208,169 @@ class ApiServiceTest {
         verify(userRepository).getUserByCreds("user", "pass");
     }
 
+    @Test
+    void login_issuesTokenResolvingUserAndCustomer() {
+        User u = new User();
+        u.setCustomerId(5);
+        Customer c = new Customer();
+        c.setCustomerId(5);
+        when(userRepository.getUserByCreds("user", "pass")).thenReturn(u);
+        when(customerRepository.getCustomerByID(5)).thenReturn(c);
+
+        LoginResponse resp = apiService.login("user", "pass");
+        SessionStore.Session session = apiService.getSession(resp.getToken());
+
+        assertEquals("5", resp.getMessage());
+        assertSame(u, session.user());
+        assertSame(c, session.customer());
+        verify(userRepository, times(1)).getUserByCreds("user", "pass");
+        verify(customerRepository, times(1)).getCustomerByID(5);
+    }
+
+    @Test
+    void login_rejectsUnknownCredentials() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> apiService.login("user", "wrong"));
+
+        assertEquals(401, ex.getStatusCode().value());
+        assertEquals(0, sessionStore.size());
+    }
+
+    @Test
+    void logout_endsSession() {
+        User u = new User();
+        u.setCustomerId(5);
+        when(userRepository.getUserByCreds("user", "pass")).thenReturn(u);
+        String token = apiService.login("user", "pass").getToken();
+
+        apiService.logout(token);
+
+        assertNull(apiService.getSession(token));
+    }
+
+    @Test
+    void getCustomerBootstrap_loadsCustomerAddressesAndRecentOrders() {
+        Customer c = new Customer();
+        c.setCustomerId(5);
+        Shipping s = new Shipping();
+        Order o = new Order();
+        when(customerRepository.getCustomerByID(5)).thenReturn(c);
+        when(shippingRepository.getShippingAddressListByCustomerId(5)).thenReturn(List.of(s));
+        when(orderRepository.getRecentOrdersByCustomerId(5, PageRequest.of(0, 20))).thenReturn(List.of(o));
+
+        CustomerBootstrap bootstrap = apiService.getCustomerBootstrap(5, null, null);
+
+        assertSame(c, bootstrap.getCustomer());
+        assertEquals(List.of(s), bootstrap.getShippingAddresses());
+        assertEquals(List.of(o), bootstrap.getRecentOrders());
+        verify(taskExecutor, times(2)).execute(any());
+    }
+
+    @Test
+    void getCustomerBootstrap_takesCustomerFromMatchingSession() {
+        User u = new User();
+        u.setCustomerId(5);
+        Customer c = new Customer();
+        c.setCustomerId(5);
+        when(userRepository.getUserByCreds("user", "pass")).thenReturn(u);
+        when(customerRepository.getCustomerByID(5)).thenReturn(c);
+        String token = apiService.login("user", "pass").getToken();
+
+        CustomerBootstrap bootstrap = apiService.getCustomerBootstrap(5, 3, token);
+
+        assertSame(c, bootstrap.getCustomer());
+        verify(customerRepository, times(1)).getCustomerByID(5);
+        verify(orderRepository).getRecentOrdersByCustomerId(5, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void getCustomerBootstrap_unknownCustomerIsNotFound() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> apiService.getCustomerBootstrap(404, null, null));
+
+        assertEquals(404, ex.getStatusCode().value());
+    }
+
+    @Test
+    void getAdminOrderPage_defaultsToNewestFirst() {
+        AdminOrderRow newer = new AdminOrderRow();
+        newer.setOrderSk(9);
+        AdminOrderRow older = new AdminOrderRow();
+        older.setOrderSk(8);
+        when(orderRepository.getAdminOrdersBefore(Integer.MAX_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(List.of(newer, older));
+
+        PageResponse<AdminOrderRow> page = apiService.getAdminOrderPage("*", null, null, 1);
+
+        assertEquals(List.of(newer), page.getItems());
+        assertEquals(9, page.getNextCursor());
+    }
+
+    @Test
+    void getAdminOrderPage_filtersStatusAscendingFromCursor() {
+        apiService.getAdminOrderPage("SHIPPED", "asc", 40, null);
+
+        verify(orderRepository).getAdminOrdersByStatusAfter("SHIPPED", 40, PageRequest.of(0, 101));
+    }
+
+    @Test
+    void getAdminOrderPage_rejectsUnknownSort() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> apiService.getAdminOrderPage(null, "status", null, null));
+
+        assertEquals(400, ex.getStatusCode().value());
+    }
+
+    private static OrderLine orderLine(String orderNumber, int orderSk, String status, Double price) {
+        return new OrderLine(orderNumber, orderSk, 12300, status, 5, 3, "Hoodie", "M", "Black", price, 1);
+    }
+
+    @Test
+    void getOrder_summarizesLinesFromOneQuery() {
+        when(orderRepository.getOrderLines("1700000000001")).thenReturn(List.of(
+                orderLine("1700000000001", 7, "SHIPPED", 20.0),
+                orderLine("1700000000001", 8, "ORDERED", 15.5),
+                orderLine("1700000000001", 9, "ORDERED", null)));
+
+        OrderSummary order = apiService.getOrder("1700000000001", null);
+
+        assertEquals("1700000000001", order.getOrderNumber());
+        assertEquals(5, order.getCustomerId());
+        assertEquals(3, order.getShippingId());
+        assertEquals("MIXED", order.getStatus());
+        assertEquals(3, order.getItemCount());
+        assertEquals(35.5, order.getTotal());
+        verify(orderRepository, never()).getOrderLinesByCustomerId(any(), any());
+    }
+
+    @Test
+    void getOrder_unknownOrderIsNotFound() {
+        when(orderRepository.getOrderLinesByCustomerId(5, List.of("1"))).thenReturn(List.of());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> apiService.getOrder("1", 5));
+
+        assertEquals(404, ex.getStatusCode().value());
+    }
+
+    @Test
+    void getOrderHistory_groupsLinesNewestFirst() {
+        when(orderRepository.getOrderNumbersByCustomerId(5, Integer.MAX_VALUE, PageRequest.of(0, 3)))
+                .thenReturn(List.of("3", "2", "1"));
+        when(orderRepository.getOrderLinesByCustomerId(5, List.of("3", "2", "1"))).thenReturn(List.of(
+                orderLine("1", 1, "SHIPPED", 10.0),
+                orderLine("2", 2, "ORDERED", 10.0),
+                orderLine("2", 4, "ORDERED", 10.0),
+                orderLine("3", 5, "ORDERED", 10.0)));
+
+        PageResponse<OrderSummary> page = apiService.getOrderHistory(5, null, 2);
+
+        assertEquals(List.of("3", "2"), page.getItems().stream().map(OrderSummary::getOrderNumber).toList());
+        assertEquals(2, page.getItems().get(1).getItemCount());
+        assertEquals("ORDERED", page.getItems().get(1).getStatus());
+        assertEquals(4, page.getNextCursor());
+    }
+
     @Test
     void addProduct_savesAndReturnsSuccess() {
         Product p = new Product();
@@ -139,6 +380,24 @@ class ApiServiceTest {
         verify(productRepository).save(p);
     }
 
+    @Test
+    void addProduct_patchesLoadedCatalog() {
+        Product existing = new Product();
+        existing.setSku(1);
+        existing.setProductName("Widget");
+        when(productRepository.findAll()).thenReturn(List.of(existing));
+        apiService.getAllProduct();
+
+        Product added = new Product();
+        added.setSku(2);
+        added.setProductName("Gadget");
+        apiService.addProduct(added);
+
+        assertEquals(2, apiService.getAllProduct().size());
+        assertEquals("Gadget", apiService.getProductBySku(2).getProductName());
+        verify(productRepository, times(1)).findAll();
+    }
+
     @Test
     void addUser_savesAndReturnsCustomerIdMessage() {
         User u = new User();
@@ -157,18 +416,92 @@ class ApiServiceTest {
 
         assertEquals("77", resp.getMessage());
         verify(customerRepository).save(c);
+        verify(sessionStore).updateCustomer(c);
     }
 
     @Test
     void getSkuByProduct_returnsSkuInResponse() {
         Product p = new Product();
         p.setSku(123);
-        when(productRepository.getSkuByProduct("Name", "L", "Red")).thenReturn(p);
+        p.setProductName("Name");
+        p.setSize("L");
+        p.setColor("Red");
+        when(productRepository.findAll()).thenReturn(List.of(p));
 
         Response resp = apiService.getSkuByProduct("Name", "L", "Red");
 
         assertEquals("123", resp.getMessage());
-        verify(productRepository).getSkuByProduct("Name", "L", "Red");
+        verify(productRepository, never()).getSkuByProduct(any(), any(), any());
+    }
+
+    @Test
+    void getVariantMatrix_mapsColorAndSizeToSku() {
+        List<Product> rows = new ArrayList<>();
+        int sku = 10;
+        for (String color : List.of("Tan", "Black")) {
+            for (String size : List.of("Small", "Medium")) {
+                Product p = new Product();
+                p.setSku(sku++);
+                p.setProductName("Guardian Of Shadows");
+                p.setSize(size);
+                p.setColor(color);
+                rows.add(p);
+            }
+        }
+        when(productRepository.findAll()).thenReturn(rows);
+
+        VariantMatrix matrix = apiService.getVariantMatrix("Guardian Of Shadows");
+
+        assertEquals(List.of("Small", "Medium"), matrix.getSizes());
+        assertEquals(List.of("Tan", "Black"), matrix.getColors());
+        assertEquals(13, matrix.getSkus().get("Black").get("Medium"));
+        assertEquals("12", apiService.getSkuByProduct("Guardian Of Shadows", "Small", "Black").getMessage());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void searchProducts_usesCatalogIndexAndCapsLimit() {
+        List<Product> rows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Product p = new Product();
+            p.setSku(i);
+            p.setProductName("Hoodie " + i);
+            p.setSize("Medium");
+            p.setColor("Black");
+            p.setPrice(20.0);
+            rows.add(p);
+        }
+        when(productRepository.findAll()).thenReturn(rows);
+
+        assertEquals(10, apiService.searchProducts("hood", null).size());
+        assertEquals(50, apiService.searchProducts("hood bl", 500).size());
+        assertEquals("Hoodie 42", apiService.searchProducts("hoodie 42", 5).get(0).getProductName());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void searchCatalog_filtersCachedCatalogWithDefaultPageSize() {
+        List<Product> rows = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            Product p = new Product();
+            p.setSku(i);
+            p.setSize(i % 2 == 0 ? "Small" : "Large");
+            p.setColor("Black");
+            p.setPrice(20.0);
+            p.setQuantity(1);
+            rows.add(p);
+        }
+        when(productRepository.findAll()).thenReturn(rows);
+        ProductFilter filter = new ProductFilter();
+        filter.setSize(List.of("Small"));
+
+        FacetedSearchResponse response = apiService.searchCatalog(filter);
+
+        assertEquals(125, response.getTotal());
+        assertEquals(100, response.getItems().size());
+        assertEquals(200, response.getNextCursor());
+        assertEquals(125, response.getSizes().get("Large"));
+        verify(productRepository, times(1)).findAll();
     }
 
     @Test
@@ -190,24 +523,176 @@ class ApiServiceTest {
         verify(shippingRepository).save(s);
     }
 
+    @Test
+    void addShipping_bumpsCustomerVersion() {
+        Shipping s = new Shipping();
+        s.setCustomerId(5);
+        long before = apiService.getCustomerVersion(5);
+
+        apiService.addShipping(s);
+
+        assertEquals(before + 1, apiService.getCustomerVersion(5));
+        assertEquals(0, apiService.getCustomerVersion(6));
+    }
+
+    @Test
+    void getCatalogPayload_serializesOncePerCatalogVersion() throws Exception {
+        Product p = new Product();
+        p.setSku(1);
+        p.setProductName("Widget");
+        when(productRepository.findAll()).thenReturn(List.of(p));
+
+        CatalogPayload first = apiService.getCatalogPayload();
+        CatalogPayload second = apiService.getCatalogPayload();
+
+        assertSame(first, second);
+        assertArrayEquals(objectMapper.writeValueAsBytes(List.of(p)), first.getJson());
+        verify(objectMapper, times(2)).writeValueAsBytes(any());
+
+        productCatalogCache.update(1, 2.0, 5);
+        CatalogPayload updated = apiService.getCatalogPayload();
+
+        assertNotSame(first, updated);
+        assertTrue(updated.getVersion() > first.getVersion());
+    }
+
+    @Test
+    void updateProduct_bumpsCatalogVersion() {
+        long before = apiService.getCatalogVersion();
+        Product p = new Product();
+        p.setSku(1);
+
+        apiService.updateProduct(p);
+
+        assertTrue(apiService.getCatalogVersion() > before);
+    }
+
     @Test
     void addOrder_savesAndReturnsSuccess() {
         Order o = new Order();
+        when(orderRepository.save(o)).thenReturn(o);
         Response resp = apiService.addOrder(o);
 
         assertEquals("success", resp.getMessage());
         verify(orderRepository).save(o);
+        verify(orderStats).orderPlaced(o);
     }
 
     @Test
-    void getAllOrders_returnsList() {
+    void addOrder_reservesStockBeforeSaving() {
         Order o = new Order();
-        when(orderRepository.findAll()).thenReturn(List.of(o));
+        o.setSku(12300);
+        doThrow(new InsufficientStockException(12300)).when(inventoryService).reserve(12300, 1);
 
-        var result = apiService.getAllOrders();
+        assertThrows(InsufficientStockException.class, () -> apiService.addOrder(o));
+        verify(orderRepository, never()).save(any());
+    }
 
-        assertEquals(1, result.size());
-        verify(orderRepository).findAll();
+    @Test
+    void checkout_savesPaymentShippingAndAllLinesTogether() {
+        Payment payment = new Payment();
+        Shipping shipping = new Shipping();
+        Order first = new Order();
+        first.setSku(1);
+        Order second = new Order();
+        second.setSku(2);
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCustomerId(3);
+        request.setOrderNumber("1700000000000");
+        request.setPayment(payment);
+        request.setShipping(shipping);
+        request.setLines(List.of(first, second));
+        when(shippingRepository.save(shipping)).thenAnswer(invocation -> {
+            shipping.setShippingId(44);
+            return shipping;
+        });
+
+        CheckoutResponse resp = apiService.checkout(request);
+
+        assertEquals(44, resp.getShippingId());
+        assertEquals("1700000000000", resp.getOrderNumber());
+        assertEquals(3, payment.getCustomerId());
+        for (Order line : List.of(first, second)) {
+            assertEquals(44, line.getShippingId());
+            assertEquals(3, line.getCustomerId());
+            assertEquals("1700000000000", line.getOrderNumber());
+            assertEquals("ORDERED", line.getStatus());
+        }
+        verify(inventoryService).reserve(Map.of(1, 1, 2, 1));
+        verify(paymentRepository).save(payment);
+        verify(orderRepository, times(1)).saveAll(request.getLines());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void checkout_rejectsEmptyCart() {
+        CheckoutRequest request = new CheckoutRequest();
+        request.setPayment(new Payment());
+        request.setShipping(new Shipping());
+        request.setLines(List.of());
+
+        assertThrows(ResponseStatusException.class, () -> apiService.checkout(request));
+        verifyNoInteractions(orderRepository, paymentRepository, shippingRepository);
+    }
+
+    @Test
+    void getOrderPage_returnsNextCursorWhenMoreRowsExist() {
+        Order first = new Order();
+        first.setOrderSk(11);
+        Order second = new Order();
+        second.setOrderSk(12);
+        Order third = new Order();
+        third.setOrderSk(13);
+        when(orderRepository.getOrderPage(10, PageRequest.of(0, 3))).thenReturn(List.of(first, second, third));
+
+        PageResponse<Order> page = apiService.getOrderPage(null, "*", 10, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(12, page.getNextCursor());
+        assertEquals(2, page.getLimit());
+    }
+
+    @Test
+    void getOrderPage_filtersByStatusAndEndsWithoutCursor() {
+        Order o = new Order();
+        o.setOrderSk(5);
+        when(orderRepository.getOrderPageByStatus("SHIPPED", 0, PageRequest.of(0, 101))).thenReturn(List.of(o));
+
+        PageResponse<Order> page = apiService.getOrderPage(null, "SHIPPED", null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(100, page.getLimit());
+    }
+
+    @Test
+    void getOrderPage_clampsLimitAndFiltersByCustomer() {
+        when(orderRepository.getOrderPageByCustomerId(7, 0, PageRequest.of(0, 1001))).thenReturn(List.of());
+
+        PageResponse<Order> page = apiService.getOrderPage(7, null, null, 50000);
+
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(1000, page.getLimit());
+    }
+
+    @Test
+    void getProductPage_walksCatalogInSkuOrder() {
+        Product a = new Product();
+        a.setSku(3);
+        Product b = new Product();
+        b.setSku(1);
+        Product c = new Product();
+        c.setSku(2);
+        when(productRepository.findAll()).thenReturn(List.of(a, b, c));
+
+        PageResponse<Product> first = apiService.getProductPage(null, 2);
+        PageResponse<Product> second = apiService.getProductPage(first.getNextCursor(), 2);
+
+        assertEquals(1, first.getItems().get(0).getSku());
+        assertEquals(2, first.getNextCursor());
+        assertEquals(1, second.getItems().size());
+        assertEquals(3, second.getItems().get(0).getSku());
+        assertNull(second.getNextCursor());
     }
 
     @Test
@@ -245,6 +730,30 @@ class ApiServiceTest {
         verify(productRepository).updateProduct(p.getPrice(), p.getQuantity(), p.getSku());
     }
 
+    @Test
+    void updateProduct_patchesPriceAndQuantityInLoadedCatalog() {
+        Product cached = new Product();
+        cached.setSku(555);
+        cached.setProductName("Widget");
+        cached.setPrice(1.0);
+        cached.setQuantity(1);
+        when(productRepository.findAll()).thenReturn(List.of(cached));
+        apiService.getAllProduct();
+
+        Product p = new Product();
+        p.setSku(555);
+        p.setPrice(9.99);
+        p.setQuantity(5);
+        apiService.updateProduct(p);
+
+        Product result = apiService.getProductBySku(555);
+        assertEquals(9.99, result.getPrice());
+        assertEquals(5, result.getQuantity());
+        assertEquals("Widget", result.getProductName());
+        assertEquals(1.0, cached.getPrice());
+        verify(productRepository, times(1)).findAll();
+    }
+
     @Test
     void updateOrder_callsRepositoryAndReturnsSuccess() {
         Order o = new Order();
@@ -256,4 +765,141 @@ class ApiServiceTest {
         assertEquals("success", resp.getMessage());
         verify(orderRepository).updateOrder(o.getStatus(), o.getOrderSk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateOrder_recordsStatusTransition() {
+        Order current = new Order();
+        current.setStatus("ORDERED");
+        when(orderRepository.getOrderForUpdate(888)).thenReturn(current);
+        Order o = new Order();
+        o.setStatus("SHIPPED");
+        o.setOrderSk(888);
+
+        apiService.updateOrder(o);
+
+        verify(orderStats).statusChanged("ORDERED", "SHIPPED");
+    }
+
+    @Test
+    void updateProducts_patchesLoadedRowsAndReportsEachRow() {
+        Product stored = new Product();
+        stored.setSku(1);
+        stored.setPrice(1.0);
+        stored.setQuantity(1);
+        when(productRepository.getProductsForUpdate(List.of(1, 2, 3))).thenReturn(List.of(stored));
+        Product found = new Product();
+        found.setSku(1);
+        found.setPrice(2.5);
+        found.setQuantity(40);
+        Product missing = new Product();
+        missing.setSku(2);
+        missing.setPrice(1.0);
+        missing.setQuantity(1);
+        Product invalid = new Product();
+        invalid.setSku(3);
+
+        BatchUpdateResponse resp = apiService.updateProducts(List.of(found, missing, invalid));
+
+        assertEquals("partial", resp.getMessage());
+        assertEquals(1, resp.getUpdated());
+        assertEquals(2, resp.getFailed());
+        assertEquals(List.of("updated", "not_found", "invalid"),
+                resp.getResults().stream().map(r -> r.getOutcome()).toList());
+        assertEquals(2.5, stored.getPrice());
+        assertEquals(40, stored.getQuantity());
+        verify(productRepository, never()).updateProduct(any(), any(), any());
+    }
+
+    @Test
+    void updateProducts_changesCatalogOncePerBatch() {
+        List<Product> rows = new ArrayList<>();
+        List<Product> batch = new ArrayList<>();
+        for (int sku = 1; sku <= 3; sku++) {
+            Product p = new Product();
+            p.setSku(sku);
+            p.setPrice(1.0);
+            p.setQuantity(1);
+            rows.add(p);
+            Product update = new Product();
+            update.setSku(sku);
+            update.setPrice(2.0);
+            update.setQuantity(5);
+            batch.add(update);
+        }
+        when(productRepository.findAll()).thenReturn(rows.stream().map(r -> {
+            Product copy = new Product();
+            copy.setSku(r.getSku());
+            copy.setPrice(r.getPrice());
+            copy.setQuantity(r.getQuantity());
+            return copy;
+        }).toList());
+        when(productRepository.getProductsForUpdate(List.of(1, 2, 3))).thenReturn(rows);
+        apiService.getAllProduct();
+        long before = apiService.getCatalogVersion();
+
+        apiService.updateProducts(batch);
+
+        assertEquals(before + 1, apiService.getCatalogVersion());
+        assertEquals(5, apiService.getProductBySku(3).getQuantity());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void updateProducts_rejectsEmptyBatch() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> apiService.updateProducts(List.of()));
+
+        assertEquals(400, e.getStatusCode().value());
+    }
+
+    @Test
+    void updateOrders_setsStatusesAndRecordsTransitions() {
+        Order stored = new Order();
+        stored.setOrderSk(7);
+        stored.setStatus("ORDERED");
+        when(orderRepository.getOrdersForUpdate(List.of(7, 8))).thenReturn(List.of(stored));
+        Order shipped = new Order();
+        shipped.setOrderSk(7);
+        shipped.setStatus("SHIPPED");
+        Order missing = new Order();
+        missing.setOrderSk(8);
+        missing.setStatus("SHIPPED");
+
+        BatchUpdateResponse resp = apiService.updateOrders(List.of(shipped, missing));
+
+        assertEquals(1, resp.getUpdated());
+        assertEquals("not_found", resp.getResults().get(1).getOutcome());
+        assertEquals("SHIPPED", stored.getStatus());
+        verify(orderStats).statusChanged("ORDERED", "SHIPPED");
+        verify(orderRepository, never()).updateOrder(any(), any());
+    }
+
+    @Test
+    void importProducts_picksFormatFromContentType() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        ImportResponse imported = new ImportResponse();
+        when(productImporter.importProducts(body, RowFormat.NDJSON)).thenReturn(imported);
+
+        assertSame(imported, apiService.importProducts(body, "application/x-ndjson"));
+    }
+
+    @Test
+    void importProducts_rejectsOtherContentTypes() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> apiService.importProducts(new ByteArrayInputStream(new byte[0]), "application/json"));
+
+        assertEquals(415, e.getStatusCode().value());
+        verifyNoInteractions(productImporter);
+    }
+
+    @Test
+    void exportOrders_streamsThroughExporterWhenWritten() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        var body = apiService.exportOrders(RowFormat.CSV, "SHIPPED", 1, 10);
+        verifyNoInteractions(rowExporter);
+        body.writeTo(out);
+
+        verify(rowExporter).exportOrders(out, RowFormat.CSV, "SHIPPED", 1, 10);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.request.ProductFilter;
+import com.example.demo.model.response.FacetedSearchResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarCatalogTest {
+    private static final String[] SIZES = {"Small", "Medium", "Large"};
+    private static final String[] COLORS = {"Tan", "Black"};
+
+    /** 150 SKUs so bitsets span three words: size cycles per SKU, color by parity of sku / 3, price = sku. */
+    private static List<Product> rows() {
+        List<Product> rows = new ArrayList<>();
+        for (int sku = 1; sku <= 150; sku++) {
+            Product p = new Product();
+            p.setSku(sku);
+            p.setProductName("Product " + sku / 6);
+            p.setSize(SIZES[sku % 3]);
+            p.setColor(COLORS[(sku / 3) % 2]);
+            p.setPrice((double) sku);
+            p.setQuantity(sku % 10 == 0 ? 0 : 5);
+            rows.add(p);
+        }
+        return rows;
+    }
+
+    private static ProductFilter filter() {
+        return new ProductFilter();
+    }
+
+    private static List<Integer> skus(FacetedSearchResponse response) {
+        List<Integer> skus = new ArrayList<>();
+        response.getItems().forEach(p -> skus.add(p.getSku()));
+        return skus;
+    }
+
+    @Test
+    void noFilterCountsEveryFacet() {
+        ColumnarCatalog columns = ColumnarCatalog.of(ProductCatalog.of(1, rows()));
+
+        FacetedSearchResponse response = columns.search(filter(), 5);
+
+        assertEquals(150, response.getTotal());
+        assertEquals(Map.of("Small", 50, "Medium", 50, "Large", 50), response.getSizes());
+        assertEquals(135, response.getInStock());
+        assertEquals(List.of(1, 2, 3, 4, 5), skus(response));
+        assertEquals(5, response.getNextCursor());
+    }
+
+    @Test
+    void filtersIntersectAndFacetCountsLeaveTheirOwnFilterOut() {
+        List<Product> rows = rows();
+        ColumnarCatalog columns = ColumnarCatalog.of(ProductCatalog.of(1, rows));
+        ProductFilter filter = filter();
+        filter.setSize(List.of("Small", "Large"));
+        filter.setColor(List.of("Black"));
+        filter.setMinPrice(60.0);
+        filter.setMaxPrice(140.0);
+        filter.setInStock(true);
+
+        FacetedSearchResponse response = columns.search(filter, 1000);
+
+        List<Integer> expected = new ArrayList<>();
+        int[] bySize = new int[3];
+        int black = 0;
+        for (Product p : rows) {
+            boolean price = p.getPrice() >= 60 && p.getPrice() <= 140;
+            boolean stock = p.getQuantity() > 0;
+            boolean size = !p.getSize().equals("Medium");
+            boolean color = p.getColor().equals("Black");
+            if (price && stock && size && color) {
+                expected.add(p.getSku());
+            }
+            if (price && stock && color) {
+                bySize[p.getSku() % 3]++;
+            }
+            if (price && stock && size && color) {
+                black++;
+            }
+        }
+        assertEquals(expected, skus(response));
+        assertEquals(expected.size(), response.getTotal());
+        assertNull(response.getNextCursor());
+        assertEquals(bySize[0], response.getSizes().get("Small"));
+        assertEquals(bySize[1], response.getSizes().get("Medium"));
+        assertEquals(black, response.getColors().get("Black"));
+    }
+
+    @Test
+    void pagesBySkuCursor() {
+        ColumnarCatalog columns = ColumnarCatalog.of(ProductCatalog.of(1, rows()));
+        ProductFilter filter = filter();
+        filter.setColor(List.of("Tan"));
+        filter.setAfter(64);
+
+        FacetedSearchResponse response = columns.search(filter, 3);
+
+        assertEquals(List.of(66, 67, 68), skus(response));
+        assertEquals(68, response.getNextCursor());
+        filter.setSize(List.of("Unknown"));
+        assertEquals(0, columns.search(filter, 3).getTotal());
+    }
+
+    @Test
+    void priceChangesKeepFacetsAndRebuildColumns() {
+        ProductCatalogCache cache = new ProductCatalogCache();
+        ProductCatalog catalog = cache.get(ColumnarCatalogTest::rows);
+        ColumnarCatalog before = ColumnarCatalog.of(catalog);
+        assertSame(before, ColumnarCatalog.of(catalog));
+
+        cache.update(10, 1000.0, 4);
+        ProductCatalog updated = cache.get(List::of);
+        ProductFilter filter = filter();
+        filter.setMinPrice(999.0);
+
+        ColumnarCatalog after = ColumnarCatalog.of(updated);
+        assertNotSame(before, after);
+        assertSame(catalog.derive(ColumnarCatalog.Facets.class, ColumnarCatalog.Facets::of),
+                updated.derive(ColumnarCatalog.Facets.class, ColumnarCatalog.Facets::of));
+        assertEquals(List.of(10), skus(after.search(filter, 10)));
+        assertEquals(136, after.search(filter(), 10).getInStock());
+    }
+}
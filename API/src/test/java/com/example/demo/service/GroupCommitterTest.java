@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GroupCommitterTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch firstStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirst = new CountDownLatch(1);
+    private GroupCommitter committer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        releaseFirst.countDown();
+        callers.shutdownNow();
+        if (committer != null) {
+            committer.stop();
+        }
+    }
+
+    private GroupCommitter committer(boolean enabled) {
+        committer = new GroupCommitter(transactionManager, meterRegistry, enabled,
+                50, Duration.ZERO, 1000, Duration.ofSeconds(1));
+        committer.start();
+        return committer;
+    }
+
+    private Integer blockingFirstWrite() {
+        firstStarted.countDown();
+        try {
+            releaseFirst.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /** Holds the flusher on a first write until {@code queued} more writes are waiting behind it. */
+    private List<Future<Integer>> submitBehindFirstWrite(List<Supplier<Integer>> queued) throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(callers.submit(() -> committer.execute(this::blockingFirstWrite)));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        for (Supplier<Integer> work : queued) {
+            results.add(callers.submit(() -> committer.execute(work)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("group.commit.queue.depth").gauge().value() < queued.size()) {
+            assertTrue(System.nanoTime() < deadline, "writes were not queued");
+            Thread.sleep(1);
+        }
+        releaseFirst.countDown();
+        return results;
+    }
+
+    @Test
+    void execute_disabledRunsEachWriteInItsOwnTransaction() {
+        committer(false);
+
+        assertEquals(1, committer.execute(() -> 1));
+        assertEquals(2, committer.execute(() -> 2));
+
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void execute_commitsQueuedWritesInOneTransaction() throws Exception {
+        committer(true);
+        List<Supplier<Integer>> queued = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            int value = i;
+            queued.add(() -> value);
+        }
+
+        List<Future<Integer>> results = submitBehindFirstWrite(queued);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        verify(transactionManager, times(2)).commit(any());
+        DistributionSummary batchSize = meterRegistry.find("group.commit.batch.size").summary();
+        assertEquals(2, batchSize.count());
+        assertEquals(6.0, batchSize.totalAmount());
+        assertEquals(2, meterRegistry.find("group.commit.flush").timer().count());
+    }
+
+    @Test
+    void execute_failedWriteOnlyFailsItsOwnCaller() throws Exception {
+        committer(true);
+        List<Supplier<Integer>> queued = List.of(
+                () -> 1,
+                () -> {
+                    throw new IllegalStateException("duplicate key");
+                },
+                () -> 3);
+
+        List<Future<Integer>> results = submitBehindFirstWrite(queued);
+
+        assertEquals(1, results.get(1).get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> results.get(2).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(3, results.get(3).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_failedBatchIsBisectedNotRetriedRowByRow() throws Exception {
+        committer(true);
+        List<Supplier<Integer>> queued = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            int value = i;
+            queued.add(() -> value);
+        }
+        queued.add(() -> {
+            throw new IllegalStateException("insufficient stock");
+        });
+
+        List<Future<Integer>> results = submitBehindFirstWrite(queued);
+
+        for (int i = 1; i <= 7; i++) {
+            assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertThrows(ExecutionException.class, () -> results.get(8).get(5, TimeUnit.SECONDS));
+        // Commits: the first write, then [1-4], [5-6] and [7]. Rollbacks: [1-7,F], [5-7,F], [7,F] and [F].
+        verify(transactionManager, times(4)).commit(any());
+        verify(transactionManager, times(4)).rollback(any());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({InventoryService.class, ProductCatalogCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryReservationStressTest {
+    private static final int HOT_SKUS = 3;
+    private static final int STOCK_PER_SKU = 200;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentReservationsOnHotSkusNeverOversell() throws Exception {
+        for (int sku = 1; sku <= HOT_SKUS; sku++) {
+            Product p = new Product();
+            p.setSku(sku);
+            p.setProductName("Hot " + sku);
+            p.setPrice(29.99);
+            p.setProductImageId(1);
+            p.setSize("Medium");
+            p.setColor("Black");
+            p.setQuantity(STOCK_PER_SKU);
+            productRepository.save(p);
+        }
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    try {
+                        inventoryService.reserve(1 + (thread + attempt) % HOT_SKUS, 1);
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - began;
+        pool.shutdown();
+
+        int remaining = 0;
+        int negativeSkus = 0;
+        for (Product p : productRepository.findAll()) {
+            remaining += p.getQuantity();
+            if (p.getQuantity() < 0) {
+                negativeSkus++;
+            }
+        }
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        int oversold = Math.max(0, reserved.get() - HOT_SKUS * STOCK_PER_SKU);
+        System.out.printf("inventory stress: %d attempts on %d SKUs in %d ms (%.0f attempts/s), %d reserved, %d rejected, oversold %d%n",
+                attempts, HOT_SKUS, elapsedNanos / 1_000_000, attempts / (elapsedNanos / 1e9),
+                reserved.get(), rejected.get(), oversold);
+
+        assertEquals(attempts, reserved.get() + rejected.get());
+        assertEquals(0, oversold);
+        assertEquals(0, negativeSkus);
+        assertEquals(HOT_SKUS * STOCK_PER_SKU, reserved.get());
+        assertEquals(0, remaining);
+    }
+}
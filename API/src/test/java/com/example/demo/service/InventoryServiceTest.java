@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.InsufficientStockException;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Spy
+    private ProductCatalogCache productCatalogCache = new ProductCatalogCache();
+
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    @Test
+    void reserve_decrementsEachSkuAndPatchesCatalog() {
+        Product p = new Product();
+        p.setSku(1);
+        p.setQuantity(10);
+        productCatalogCache.get(() -> List.of(p));
+        when(productRepository.reserveQuantity(1, 3)).thenReturn(1);
+
+        inventoryService.reserve(1, 3);
+
+        assertEquals(7, productCatalogCache.get(List::of).getBySku(1).getQuantity());
+        assertEquals(10, p.getQuantity());
+    }
+
+    @Test
+    void reserve_failsFastOnFirstShortSku() {
+        when(productRepository.reserveQuantity(1, 1)).thenReturn(1);
+        when(productRepository.reserveQuantity(2, 5)).thenReturn(0);
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(Map.of(3, 1, 2, 5, 1, 1)));
+
+        assertEquals(2, e.getSku());
+        verify(productRepository, never()).reserveQuantity(3, 1);
+        verify(productCatalogCache, never()).adjustQuantities(any());
+    }
+
+    @Test
+    void reserve_rejectsMissingSkuWithBadRequest() {
+        Map<Integer, Integer> lines = new HashMap<>();
+        lines.put(1, 1);
+        lines.put(null, 1);
+
+        ResponseStatusException single = assertThrows(ResponseStatusException.class,
+                () -> inventoryService.reserve(null, 1));
+        ResponseStatusException multi = assertThrows(ResponseStatusException.class,
+                () -> inventoryService.reserve(lines));
+
+        assertEquals(400, single.getStatusCode().value());
+        assertEquals(400, multi.getStatusCode().value());
+        verify(productRepository, never()).reserveQuantity(any(), anyInt());
+    }
+}
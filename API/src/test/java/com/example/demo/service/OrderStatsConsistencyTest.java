@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderStats.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatsConsistencyTest {
+
+    @Autowired
+    private OrderStats orderStats;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Order order(String status, int sku) {
+        Order order = new Order();
+        order.setSku(sku);
+        order.setStatus(status);
+        order.setOrderNumber("1700000000000");
+        return order;
+    }
+
+    @Test
+    void countersMatchSqlRecountAfterWritesAndRollbacks() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            orderRepository.save(order("ORDERED", 1));
+            orderRepository.save(order("SHIPPED", 2));
+        });
+        orderStats.reseed();
+
+        Order placed = tx.execute(status -> {
+            Order saved = orderRepository.save(order("ORDERED", 2));
+            orderStats.orderPlaced(saved);
+            return saved;
+        });
+        tx.executeWithoutResult(status -> {
+            Order current = orderRepository.getOrderForUpdate(placed.getOrderSk());
+            orderRepository.updateOrder("DELIVERED", placed.getOrderSk());
+            orderStats.statusChanged(current.getStatus(), "DELIVERED");
+        });
+        tx.executeWithoutResult(status -> {
+            orderStats.orderPlaced(orderRepository.save(order("ORDERED", 3)));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("consistent", orderStats.check().getMessage());
+        assertEquals(3, orderStats.snapshot(10).getTotalOrders());
+        assertEquals(2, orderStats.unitsForSku(2));
+        assertEquals(0, orderStats.unitsForSku(3));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.response.OrderStatsResponse;
+import com.example.demo.model.response.StatsCheckResponse;
+import com.example.demo.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatsTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderStats orderStats;
+
+    private static Order order(String status, int sku) {
+        Order order = new Order();
+        order.setStatus(status);
+        order.setSku(sku);
+        return order;
+    }
+
+    private static List<Object[]> rows(Object... keysAndCounts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < keysAndCounts.length; i += 2) {
+            rows.add(new Object[]{keysAndCounts[i], keysAndCounts[i + 1]});
+        }
+        return rows;
+    }
+
+    @Test
+    void reseed_loadsCountsFromDatabase() {
+        when(orderRepository.countOrdersByStatus()).thenReturn(rows("ORDERED", 3L, "SHIPPED", 2L));
+        when(orderRepository.countOrdersBySku()).thenReturn(rows(12300, 4L, 12301, 1L));
+
+        assertFalse(orderStats.snapshot(10).isSeeded());
+        orderStats.reseed();
+        OrderStatsResponse stats = orderStats.snapshot(10);
+
+        assertTrue(stats.isSeeded());
+        assertEquals(5, stats.getTotalOrders());
+        assertEquals(Map.of("ORDERED", 3L, "SHIPPED", 2L), stats.getOrdersByStatus());
+        assertEquals(4, orderStats.unitsForSku(12300));
+    }
+
+    @Test
+    void reseed_recountsBothAggregatesInOneRepeatableReadTransaction() {
+        when(orderRepository.countOrdersByStatus()).thenAnswer(invocation -> {
+            orderStats.orderPlaced(order("ORDERED", 1));
+            return rows("ORDERED", 1L);
+        });
+        when(orderRepository.countOrdersBySku()).thenReturn(rows(1, 1L));
+
+        orderStats.reseed();
+
+        assertEquals(Map.of("ORDERED", 2L), orderStats.snapshot(10).getOrdersByStatus());
+        assertEquals(2, orderStats.unitsForSku(1));
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void orderPlacedAndStatusChanged_moveCounters() {
+        orderStats.orderPlaced(order("ORDERED", 1));
+        orderStats.orderPlaced(order("ORDERED", 1));
+        orderStats.statusChanged("ORDERED", "SHIPPED");
+        orderStats.statusChanged("SHIPPED", "SHIPPED");
+
+        OrderStatsResponse stats = orderStats.snapshot(10);
+
+        assertEquals(Map.of("ORDERED", 1L, "SHIPPED", 1L), stats.getOrdersByStatus());
+        assertEquals(2, orderStats.unitsForSku(1));
+    }
+
+    @Test
+    void snapshot_ranksTopSkusByUnits() {
+        for (int sku = 1; sku <= 5; sku++) {
+            for (int unit = 0; unit < sku; unit++) {
+                orderStats.orderPlaced(order("ORDERED", sku));
+            }
+        }
+
+        Map<Integer, Long> top = orderStats.snapshot(3).getTopSkus();
+
+        assertEquals(List.of(5, 4, 3), new ArrayList<>(top.keySet()));
+        assertEquals(5L, top.get(5));
+    }
+
+    @Test
+    void check_reportsDriftFromRecount() {
+        when(orderRepository.countOrdersByStatus()).thenReturn(rows("ORDERED", 1L));
+        when(orderRepository.countOrdersBySku()).thenReturn(rows(1, 1L));
+        orderStats.reseed();
+        assertTrue(orderStats.check().isConsistent());
+
+        orderStats.orderPlaced(order("ORDERED", 2));
+        StatsCheckResponse check = orderStats.check();
+
+        assertFalse(check.isConsistent());
+        assertEquals("inconsistent", check.getMessage());
+        assertEquals(2, check.getMismatches().size());
+    }
+
+    @Test
+    void orderPlaced_concurrentWritersLoseNoCounts() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    orderStats.orderPlaced(order(i % 2 == 0 ? "ORDERED" : "SHIPPED", i % 10));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+
+        assertEquals(80_000, orderStats.snapshot(0).getTotalOrders());
+        assertEquals(8_000, orderStats.unitsForSku(3));
+    }
+}
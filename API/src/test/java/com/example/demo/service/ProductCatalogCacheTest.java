@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogCacheTest {
+
+    private final ProductCatalogCache cache = new ProductCatalogCache();
+
+    private static Product product(int sku, String name, String size, String color) {
+        Product p = new Product();
+        p.setSku(sku);
+        p.setProductName(name);
+        p.setSize(size);
+        p.setColor(color);
+        p.setPrice(10.0);
+        p.setQuantity(3);
+        return p;
+    }
+
+    @Test
+    void get_loadsOnceAndBumpsVersion() {
+        AtomicInteger loads = new AtomicInteger();
+        List<Product> rows = List.of(product(1, "Widget", "S", "Red"));
+
+        ProductCatalog first = cache.get(() -> {
+            loads.incrementAndGet();
+            return rows;
+        });
+        ProductCatalog second = cache.get(() -> {
+            loads.incrementAndGet();
+            return rows;
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, first.getVersion());
+        assertEquals(first.getVersion(), cache.getVersion());
+    }
+
+    @Test
+    void get_discardsLoadThatRacedWithWrite() {
+        AtomicInteger loads = new AtomicInteger();
+
+        ProductCatalog catalog = cache.get(() -> {
+            if (loads.incrementAndGet() == 1) {
+                cache.invalidate();
+                return List.of(product(1, "Stale", "S", "Red"));
+            }
+            return List.of(product(1, "Fresh", "S", "Red"));
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals("Fresh", catalog.getBySku(1).getProductName());
+    }
+
+    @Test
+    void put_replacesSkuAndReindexesRenamedProduct() {
+        cache.get(() -> List.of(product(1, "Widget", "S", "Red"), product(2, "Widget", "M", "Red")));
+        long version = cache.getVersion();
+
+        cache.put(product(2, "Gadget", "M", "Red"));
+        ProductCatalog catalog = cache.get(List::of);
+
+        assertEquals(version + 1, catalog.getVersion());
+        assertEquals(2, catalog.size());
+        assertEquals(1, catalog.getByProductName("Widget").size());
+        assertEquals(2, catalog.getVariant("Gadget", "M", "Red").getSku());
+        assertNull(catalog.getVariant("Widget", "M", "Red"));
+    }
+
+    @Test
+    void put_reindexesVariantWhenSizeChanges() {
+        cache.get(() -> List.of(product(1, "Widget", "S", "Red")));
+
+        cache.put(product(1, "Widget", "L", "Red"));
+        ProductCatalog catalog = cache.get(List::of);
+
+        assertNull(catalog.getVariant("Widget", "S", "Red"));
+        assertEquals(1, catalog.getVariant("Widget", "L", "Red").getSku());
+    }
+
+    @Test
+    void update_unknownSkuInvalidatesCatalog() {
+        cache.get(() -> List.of(product(1, "Widget", "S", "Red")));
+
+        cache.update(99, 1.0, 1);
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(() -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void adjustQuantities_coalescesReservationsUntilRefresh() {
+        ProductCatalogCache slow = new ProductCatalogCache(Duration.ofHours(1));
+        slow.get(() -> List.of(product(1, "Widget", "S", "Red"), product(2, "Widget", "M", "Red")));
+        long version = slow.getVersion();
+
+        slow.adjustQuantities(Map.of(1, 1));
+        slow.adjustQuantities(Map.of(1, 1, 2, 1));
+
+        assertEquals(version, slow.getVersion());
+        assertEquals(3, slow.get(List::of).getBySku(1).getQuantity());
+
+        slow.update(2, 12.0, 10);
+        ProductCatalog catalog = slow.get(List::of);
+
+        assertEquals(1, catalog.getBySku(1).getQuantity());
+        assertEquals(10, catalog.getBySku(2).getQuantity());
+        assertEquals(version + 2, catalog.getVersion());
+    }
+
+    @Test
+    void adjustQuantities_appliesOnFirstReadAfterRefresh() {
+        cache.get(() -> List.of(product(1, "Widget", "S", "Red")));
+        long version = cache.getVersion();
+
+        cache.adjustQuantities(Map.of(1, 2));
+        cache.adjustQuantities(Map.of(1, 1));
+
+        assertEquals(version + 1, cache.getVersion());
+        assertEquals(0, cache.get(List::of).getBySku(1).getQuantity());
+    }
+
+    @Test
+    void invalidate_dropsPendingReservations() {
+        ProductCatalogCache slow = new ProductCatalogCache(Duration.ofHours(1));
+        slow.get(() -> List.of(product(1, "Widget", "S", "Red")));
+        slow.adjustQuantities(Map.of(1, 1));
+
+        slow.invalidate();
+        ProductCatalog reloaded = slow.get(() -> List.of(product(1, "Widget", "S", "Red")));
+
+        assertEquals(3, reloaded.getBySku(1).getQuantity());
+    }
+
+    @Test
+    void adjustQuantities_invalidatesLoadThatMayHaveReadTheReservation() {
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> commitHooks;
+        try {
+            cache.adjustQuantities(Map.of(1, 1));
+            commitHooks = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Product reserved = product(1, "Widget", "S", "Red");
+        reserved.setQuantity(2);
+        cache.get(() -> List.of(reserved));
+
+        commitHooks.forEach(TransactionSynchronization::afterCommit);
+        ProductCatalog catalog = cache.get(() -> List.of(reserved));
+
+        assertEquals(2, catalog.getBySku(1).getQuantity());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import com.example.demo.model.response.ImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ProductImporterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductCatalogCache productCatalogCache = mock(ProductCatalogCache.class);
+    private final List<List<Object[]>> batches = new ArrayList<>();
+
+    private ProductImporter importer(int batchSize) {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                if ("Bad".equals(row[1])) {
+                    throw new DataIntegrityViolationException("value too long");
+                }
+            }
+            batches.add(new ArrayList<>(rows));
+            return new int[rows.size()];
+        });
+        return new ProductImporter(jdbcTemplate, mock(PlatformTransactionManager.class), new ObjectMapper(),
+                productCatalogCache, batchSize);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csv_upsertsInFixedSizeBatches() {
+        String csv = "sku,product_name,price,img_id,size,color,quantity\n"
+                + "1,Shirt,10.5,1,M,Red,5\n"
+                + "2,\"Shirt, \"\"long\"\"\",11,1,L,Red,5\n"
+                + "3,Hat,8,2,S,Blue,0\n";
+
+        ImportResponse resp = importer(2).importProducts(body(csv), RowFormat.CSV);
+
+        assertEquals("success", resp.getMessage());
+        assertEquals(3, resp.getImported());
+        assertEquals(0, resp.getRejected());
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals("Shirt, \"long\"", batches.get(0).get(1)[1]);
+        assertEquals(10.5, batches.get(0).get(0)[2]);
+        verify(productCatalogCache, times(1)).invalidate();
+    }
+
+    @Test
+    void csv_rejectsMalformedRowsAndKeepsTheRest() {
+        String csv = "productName,sku,price,productImageId,size,color,quantity\n"
+                + "Shirt,1,ten,1,M,Red,5\n"
+                + "Shirt,2,10,1,M\n"
+                + "Hat,3,8,2,S,Blue,-1\n"
+                + "Hat,4,8,2,S,Blue,1\n";
+
+        ImportResponse resp = importer(100).importProducts(body(csv), RowFormat.CSV);
+
+        assertEquals("partial", resp.getMessage());
+        assertEquals(1, resp.getImported());
+        assertEquals(3, resp.getRejected());
+        assertTrue(resp.getRejections().get(0).startsWith("line 2: price"));
+        assertTrue(resp.getRejections().get(1).startsWith("line 3:"));
+        assertEquals(4, batches.get(0).get(0)[0]);
+    }
+
+    @Test
+    void csv_missingColumnIsBadRequest() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> importer(10).importProducts(body("sku,price\n1,2\n"), RowFormat.CSV));
+
+        assertEquals(400, e.getStatusCode().value());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void ndjson_keepsLastRowForRepeatedSku() {
+        String ndjson = "{\"sku\":1,\"productName\":\"Shirt\",\"price\":1,\"productImageId\":1,\"size\":\"M\",\"color\":\"Red\",\"quantity\":1}\n"
+                + "\n"
+                + "{not json}\n"
+                + "{\"sku\":1,\"productName\":\"Shirt\",\"price\":2,\"productImageId\":1,\"size\":\"M\",\"color\":\"Red\",\"quantity\":9}\n";
+
+        ImportResponse resp = importer(10).importProducts(body(ndjson), RowFormat.NDJSON);
+
+        assertEquals(2, resp.getImported());
+        assertEquals(1, resp.getRejected());
+        assertTrue(resp.getRejections().get(0).startsWith("line 3: malformed JSON"));
+        assertEquals(1, batches.get(0).size());
+        assertEquals(9, batches.get(0).get(0)[6]);
+    }
+
+    @Test
+    void failedBatchOnlyRejectsOffendingRow() {
+        String csv = "sku,product_name,price,img_id,size,color,quantity\n"
+                + "1,Shirt,1,1,M,Red,1\n"
+                + "2,Bad,1,1,M,Red,1\n"
+                + "3,Hat,1,1,M,Red,1\n";
+
+        ImportResponse resp = importer(10).importProducts(body(csv), RowFormat.CSV);
+
+        assertEquals(2, resp.getImported());
+        assertEquals(List.of("line 3: value too long"), resp.getRejections());
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void failedBatchIsBisectedNotRetriedRowByRow() {
+        StringBuilder csv = new StringBuilder("sku,product_name,price,img_id,size,color,quantity\n");
+        for (int sku = 1; sku <= 8; sku++) {
+            csv.append(sku).append(sku == 8 ? ",Bad" : ",Shirt").append(",1,1,M,Red,1\n");
+        }
+
+        ImportResponse resp = importer(100).importProducts(body(csv.toString()), RowFormat.CSV);
+
+        assertEquals(7, resp.getImported());
+        assertEquals(List.of("line 9: value too long"), resp.getRejections());
+        // [1-8] fails, [1-4] lands, [5-8] fails, [5-6] lands, [7-8] fails, [7] lands, [8] is rejected.
+        verify(jdbcTemplate, times(7)).batchUpdate(anyString(), anyList());
+        assertEquals(List.of(4, 2, 1), batches.stream().map(List::size).toList());
+    }
+
+    @Test
+    void formatFollowsContentType() {
+        assertEquals(RowFormat.CSV, RowFormat.forContentType("text/csv; charset=UTF-8"));
+        assertEquals(RowFormat.NDJSON, RowFormat.forContentType("application/x-ndjson"));
+        assertNull(RowFormat.forContentType("application/json"));
+    }
+}
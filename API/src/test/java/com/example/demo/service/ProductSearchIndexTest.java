@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.response.ProductGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private static Product product(int sku, String name, String size, String color, double price) {
+        Product p = new Product();
+        p.setSku(sku);
+        p.setProductName(name);
+        p.setSize(size);
+        p.setColor(color);
+        p.setPrice(price);
+        p.setQuantity(5);
+        p.setProductImageId(sku);
+        return p;
+    }
+
+    private static ProductCatalog catalog() {
+        return ProductCatalog.of(1, List.of(
+                product(1, "Guardian Of Shadows", "Small", "Black", 30.0),
+                product(2, "Guardian Of Shadows", "Large", "Black", 32.0),
+                product(3, "Guardian Of Shadows", "Small", "Tan", 30.0),
+                product(4, "guardian of  shadows", "X-Large", "Tan", 34.0),
+                product(5, "Guard", "Medium", "Red", 10.0),
+                product(6, "Shadow Runner Hoodie", "Medium", "Black", 55.0)));
+    }
+
+    private static List<String> names(List<ProductGroup> groups) {
+        List<String> names = new ArrayList<>();
+        groups.forEach(group -> names.add(group.getProductName()));
+        return names;
+    }
+
+    @Test
+    void groupsVariantsOfTheSameNameIgnoringCaseAndSpacing() {
+        ProductCatalog catalog = catalog();
+        ProductSearchIndex index = ProductSearchIndex.of(catalog);
+
+        List<ProductGroup> groups = index.search(catalog, "shadows", 10);
+
+        assertEquals(3, index.size());
+        assertEquals(1, groups.size());
+        assertEquals("Guardian Of Shadows", groups.get(0).getProductName());
+        assertEquals(List.of(1, 2, 3, 4), groups.get(0).getSkus());
+        assertEquals(30.0, groups.get(0).getMinPrice());
+        assertEquals(34.0, groups.get(0).getMaxPrice());
+    }
+
+    @Test
+    void lastWordIsAPrefixAndAttributesNarrowTheVariants() {
+        ProductCatalog catalog = catalog();
+        ProductSearchIndex index = ProductSearchIndex.of(catalog);
+
+        List<ProductGroup> groups = index.search(catalog, "guardian sma bla", 10);
+
+        assertEquals(1, groups.size());
+        assertEquals(List.of(1), groups.get(0).getSkus());
+        assertEquals(List.of("Small"), groups.get(0).getSizes());
+        assertEquals(List.of("Black"), groups.get(0).getColors());
+        assertTrue(index.search(catalog, "guardian red", 10).isEmpty());
+        assertTrue(index.search(catalog, "nothing", 10).isEmpty());
+        assertTrue(index.search(catalog, " -- ", 10).isEmpty());
+    }
+
+    @Test
+    void wholeWordMatchesRankFirstThenShorterNames() {
+        ProductCatalog catalog = catalog();
+        ProductSearchIndex index = ProductSearchIndex.of(catalog);
+
+        assertEquals(List.of("Guard", "Guardian Of Shadows"), names(index.search(catalog, "guar", 10)));
+        assertEquals(List.of("Guardian Of Shadows"), names(index.search(catalog, "guardian", 10)));
+        assertEquals(List.of("Shadow Runner Hoodie", "Guardian Of Shadows"), names(index.search(catalog, "shadow", 10)));
+        assertEquals(List.of("Guard"), names(index.search(catalog, "guar", 1)));
+    }
+
+    @Test
+    void wholeWordMatchBeyondManyPrefixMatchesStillRanksFirst() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            products.add(product(i, "Capes " + i, "Small", "Red", 10.0));
+        }
+        products.add(product(100, "Wool Winter Baseball Cap", "Small", "Red", 20.0));
+        ProductCatalog catalog = ProductCatalog.of(1, products);
+        ProductSearchIndex index = ProductSearchIndex.of(catalog);
+
+        assertEquals(List.of("Wool Winter Baseball Cap"), names(index.search(catalog, "cap", 1)));
+        assertEquals(List.of("Wool Winter Baseball Cap", "Capes 0", "Capes 1"),
+                names(index.search(catalog, "cap", 3)));
+    }
+
+    @Test
+    void priceChangesKeepTheIndexAndShowNewPrices() {
+        ProductCatalogCache cache = new ProductCatalogCache();
+        ProductCatalog catalog = cache.get(() -> catalog().getProducts());
+        ProductSearchIndex index = catalog.derive(ProductSearchIndex.class, ProductSearchIndex::of);
+
+        cache.update(5, 12.5, 1);
+        ProductCatalog updated = cache.get(List::of);
+
+        assertSame(index, updated.derive(ProductSearchIndex.class, ProductSearchIndex::of));
+        assertEquals(12.5, index.search(updated, "guard", 1).get(0).getMinPrice());
+
+        cache.put(product(7, "Guardian Of Shadows", "Medium", "Black", 31.0));
+        ProductCatalog grown = cache.get(List::of);
+
+        assertNotSame(index, grown.derive(ProductSearchIndex.class, ProductSearchIndex::of));
+        assertEquals(5, grown.derive(ProductSearchIndex.class, ProductSearchIndex::of)
+                .search(grown, "guardian", 1).get(0).getSkus().size());
+    }
+}
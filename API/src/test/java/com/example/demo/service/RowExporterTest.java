@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Customer;
+import com.example.demo.model.Order;
+import com.example.demo.repository.CustomerRepository;
+import com.example.demo.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RowExporterTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private RowExporter exporter() {
+        return new RowExporter(dataSource, transactionManager, new ObjectMapper(), 2);
+    }
+
+    private Order order(String status) {
+        Order order = new Order();
+        order.setSku(12300);
+        order.setStatus(status);
+        order.setOrderNumber("1700000000000");
+        return orderRepository.save(order);
+    }
+
+    @Test
+    void exportOrders_streamsFilteredRowsAsNdjson() throws Exception {
+        Order first = order("SHIPPED");
+        order("ORDERED");
+        Order third = order("SHIPPED");
+        order("SHIPPED");
+        entityManager.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter().exportOrders(out, RowFormat.NDJSON, "SHIPPED", first.getOrderSk(), third.getOrderSk());
+
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        Order parsed = new ObjectMapper().readValue(lines[1], Order.class);
+        assertEquals(third.getOrderSk(), parsed.getOrderSk());
+        assertEquals("SHIPPED", parsed.getStatus());
+        assertEquals(12300, parsed.getSku());
+        assertNull(parsed.getCustomerId());
+    }
+
+    @Test
+    void exportCustomers_writesQuotedCsv() throws Exception {
+        Customer customer = new Customer();
+        customer.setCustomerId(501);
+        customer.setFirstName("Joe");
+        customer.setLastName("Smith, Jr.");
+        customer.setEmailAddress("joe.smith@gmail.com");
+        customerRepository.save(customer);
+        entityManager.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter().exportCustomers(out, RowFormat.CSV, 501, 501);
+
+        assertEquals(1, rows);
+        assertEquals("customerId,firstName,lastName,emailAddress,phoneNumber\n"
+                + "501,Joe,\"Smith, Jr.\",joe.smith@gmail.com,\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportOrders_writesNothingForEmptyRange() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter().exportOrders(out, RowFormat.NDJSON, "*", -2, -1);
+
+        assertEquals(0, rows);
+        assertEquals(0, out.size());
+    }
+}
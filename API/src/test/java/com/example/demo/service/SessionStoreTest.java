@@ -0,0 +1,175 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Customer;
+import com.example.demo.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+
+    private SessionStore store(int maxSessions) {
+        return new SessionStore(meterRegistry, "secret", maxSessions, Duration.ofMinutes(30), clock);
+    }
+
+    private static User user(int customerId) {
+        User user = new User();
+        user.setCustomerId(customerId);
+        user.setUserID("user" + customerId);
+        return user;
+    }
+
+    private static Customer customer(int customerId, String firstName) {
+        Customer customer = new Customer();
+        customer.setCustomerId(customerId);
+        customer.setFirstName(firstName);
+        return customer;
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.find("session.evictions").tag("cause", cause).counter().count();
+    }
+
+    @Test
+    void get_returnsSessionForIssuedToken() {
+        SessionStore store = store(10);
+        SessionStore.Session session = store.create(user(1), customer(1, "Joe"));
+
+        SessionStore.Session found = store.get(session.token());
+
+        assertSame(session, found);
+        assertEquals(1, found.customerId());
+        assertEquals("Joe", found.customer().getFirstName());
+    }
+
+    @Test
+    void get_rejectsTokenWithBadSignature() {
+        SessionStore store = store(10);
+        String token = store.create(user(1), customer(1, "Joe")).token();
+        String forged = token.substring(0, token.indexOf('.') + 1) + "AAAA";
+
+        assertNull(store.get(forged));
+        assertNull(store.get("no-signature"));
+        assertNull(new SessionStore(meterRegistry, "other", 10, Duration.ofMinutes(30), clock).get(token));
+    }
+
+    @Test
+    void get_expiresSessionAfterTtl() {
+        SessionStore store = store(10);
+        String token = store.create(user(1), customer(1, "Joe")).token();
+
+        clock.advance(Duration.ofMinutes(30));
+
+        assertNull(store.get(token));
+        assertEquals(0, store.size());
+        assertEquals(1.0, evictions("expired"));
+    }
+
+    @Test
+    void create_sweepsExpiredAndEvictsOldestOverCapacity() {
+        SessionStore store = store(2);
+        String expired = store.create(user(1), customer(1, "Joe")).token();
+        clock.advance(Duration.ofMinutes(31));
+        String oldest = store.create(user(2), customer(2, "Bob")).token();
+        String middle = store.create(user(3), customer(3, "Chuck")).token();
+        String newest = store.create(user(4), customer(4, "Dan")).token();
+
+        assertNull(store.get(expired));
+        assertNull(store.get(oldest));
+        assertNotNull(store.get(middle));
+        assertNotNull(store.get(newest));
+        assertEquals(1.0, evictions("expired"));
+        assertEquals(1.0, evictions("capacity"));
+    }
+
+    @Test
+    void updateCustomer_replacesCustomerInLiveSessions() {
+        SessionStore store = store(10);
+        String joe = store.create(user(1), customer(1, "Joe")).token();
+        String bob = store.create(user(2), customer(2, "Bob")).token();
+
+        store.updateCustomer(customer(1, "Joseph"));
+
+        assertEquals("Joseph", store.get(joe).customer().getFirstName());
+        assertEquals("Bob", store.get(bob).customer().getFirstName());
+    }
+
+    @Test
+    void updateCustomer_skipsEndedSessions() {
+        SessionStore store = store(10);
+        String first = store.create(user(1), customer(1, "Joe")).token();
+        String second = store.create(user(1), customer(1, "Joe")).token();
+        store.remove(first);
+
+        store.updateCustomer(customer(1, "Joseph"));
+        store.updateCustomer(customer(3, "Nobody"));
+
+        assertNull(store.get(first));
+        assertEquals("Joseph", store.get(second).customer().getFirstName());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void remove_leavesCapacityForLiveSessions() {
+        SessionStore store = store(2);
+        String kept = store.create(user(1), customer(1, "Joe")).token();
+        for (int i = 0; i < 5; i++) {
+            store.remove(store.create(user(2), customer(2, "Bob")).token());
+        }
+        String newest = store.create(user(3), customer(3, "Chuck")).token();
+
+        assertNotNull(store.get(kept));
+        assertNotNull(store.get(newest));
+        assertEquals(0.0, evictions("capacity"));
+
+        String third = store.create(user(4), customer(4, "Dan")).token();
+
+        assertNull(store.get(kept));
+        assertNotNull(store.get(third));
+        assertEquals(1.0, evictions("capacity"));
+    }
+
+    @Test
+    void remove_endsSession() {
+        SessionStore store = store(10);
+        String token = store.create(user(1), customer(1, "Joe")).token();
+
+        store.remove(token);
+
+        assertNull(store.get(token));
+        assertEquals(0.0, evictions("expired"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
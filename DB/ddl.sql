@@ -12,6 +12,8 @@ create table if not exists seis739finalschema.product (
 	quantity BIGINT NOT NULL
 );
 
+create index if not exists product_variant_idx on seis739finalschema.product (product_name, size, color);
+
 create table if not exists seis739finalschema.customer (
 	customer_sk SERIAL PRIMARY KEY,
 	first_name VARCHAR(50) NOT NULL,
@@ -40,12 +42,18 @@ create table if not exists seis739finalschema.order (
 	sku BIGINT NOT NULL references seis739finalschema.product
 );
 
+create index if not exists order_status_idx on seis739finalschema.order (status, tracking_number);
+create index if not exists order_customer_idx on seis739finalschema.order (customer_sk, tracking_number);
+create index if not exists order_number_idx on seis739finalschema.order (order_number, tracking_number);
+
 create table if not exists seis739finalschema.user (
 	customer_sk SERIAL PRIMARY KEY,
 	user_id VARCHAR(50) NOT NULL,
 	user_pass VARCHAR(50) NOT NULL
 );
 
+create index if not exists user_user_id_idx on seis739finalschema.user (user_id);
+
 create table if not exists seis739finalschema.payment (
 	payment_sk SERIAL PRIMARY KEY,
 	customer_sk BIGINT REFERENCES seis739finalschema.customer,
@@ -125,4 +133,11 @@ insert into seis739finalschema.customer(first_name, last_name, email_address) VA
 
 insert into seis739finalschema.user (user_id, user_pass) VALUES ('joe', 'abc123');
 insert into seis739finalschema.user (user_id, user_pass) VALUES ('bob', 'pass');
-insert into seis739finalschema.user (user_id, user_pass) VALUES ('chuck', 'pass1');
\ No newline at end of file
+insert into seis739finalschema.user (user_id, user_pass) VALUES ('chuck', 'pass1');
+
+-- Hibernate allocates ids from these sequences in blocks of 50 (pooled optimizer, allocationSize = 50),
+-- so the increment must match. Run after the seed rows above so they keep consecutive ids.
+alter sequence seis739finalschema.order_tracking_number_seq increment by 50;
+alter sequence seis739finalschema.shipping_shipping_sk_seq increment by 50;
+alter sequence seis739finalschema.payment_payment_sk_seq increment by 50;
+alter sequence seis739finalschema.user_customer_sk_seq increment by 50;
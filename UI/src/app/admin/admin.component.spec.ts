@@ -20,8 +20,8 @@ describe('AdminComponent', () => {
 
   beforeEach(async () => {
     mockSnackBar = jasmine.createSpyObj('MatSnackBar', ['open']);
-    mockOrderService = jasmine.createSpyObj('OrderService', ['getOrders', 'updateOrder']);
-    mockProductService = jasmine.createSpyObj('ProductService', ['getProducts', 'updateProduct']);
+    mockOrderService = jasmine.createSpyObj('OrderService', ['getOrders', 'updateOrders']);
+    mockProductService = jasmine.createSpyObj('ProductService', ['getProducts', 'updateProducts']);
     mockCustomerService = jasmine.createSpyObj('CustomerService', [
       'getCustomers',
       'getCustomerById',
@@ -34,8 +34,8 @@ describe('AdminComponent', () => {
     mockCustomerService.getCustomers.and.returnValue(of([]));
     mockCustomerService.getCustomerById.and.returnValue(of({}));
     mockCustomerService.getShippingAddressByCustomerId.and.returnValue(of({}));
-    mockProductService.updateProduct.and.returnValue(of({}));
-    mockOrderService.updateOrder.and.returnValue(of({}));
+    mockProductService.updateProducts.and.returnValue(of({}));
+    mockOrderService.updateOrders.and.returnValue(of({}));
 
     await TestBed.configureTestingModule({
       imports: [AdminComponent, BrowserAnimationsModule],
@@ -301,7 +301,7 @@ describe('AdminComponent', () => {
     it('should update product when price changes', fakeAsync(() => {
       mockProductService.getProducts.and.returnValue(of(mockProducts));
       mockOrderService.getOrders.and.returnValue(of([]));
-      mockProductService.updateProduct.and.returnValue(of({}));
+      mockProductService.updateProducts.and.returnValue(of({}));
 
       component.products = [
         { ...mockProducts[0], price: 49.99 },
@@ -311,13 +311,13 @@ describe('AdminComponent', () => {
       component.submitChanges();
       tick();
 
-      expect(mockProductService.updateProduct).toHaveBeenCalled();
+      expect(mockProductService.updateProducts).toHaveBeenCalledOnceWith([component.products[0]]);
     }));
 
     it('should update product when quantity changes', fakeAsync(() => {
       mockProductService.getProducts.and.returnValue(of(mockProducts));
       mockOrderService.getOrders.and.returnValue(of([]));
-      mockProductService.updateProduct.and.returnValue(of({}));
+      mockProductService.updateProducts.and.returnValue(of({}));
 
       component.products = [
         { ...mockProducts[0], quantity: 20 },
@@ -327,7 +327,7 @@ describe('AdminComponent', () => {
       component.submitChanges();
       tick();
 
-      expect(mockProductService.updateProduct).toHaveBeenCalled();
+      expect(mockProductService.updateProducts).toHaveBeenCalled();
     }));
 
     it('should not update product when price and quantity unchanged', fakeAsync(() => {
@@ -339,13 +339,13 @@ describe('AdminComponent', () => {
       component.submitChanges();
       tick();
 
-      expect(mockProductService.updateProduct).not.toHaveBeenCalled();
+      expect(mockProductService.updateProducts).not.toHaveBeenCalled();
     }));
 
     it('should update order when status changes', fakeAsync(() => {
       mockProductService.getProducts.and.returnValue(of([]));
       mockOrderService.getOrders.and.returnValue(of(mockOrders));
-      mockOrderService.updateOrder.and.returnValue(of({}));
+      mockOrderService.updateOrders.and.returnValue(of({}));
 
       component.orders = [
         { ...mockOrders[0], status: 'Shipped' },
@@ -355,7 +355,7 @@ describe('AdminComponent', () => {
       component.submitChanges();
       tick();
 
-      expect(mockOrderService.updateOrder).toHaveBeenCalled();
+      expect(mockOrderService.updateOrders).toHaveBeenCalled();
     }));
 
     it('should not update order when status unchanged', fakeAsync(() => {
@@ -367,13 +367,13 @@ describe('AdminComponent', () => {
       component.submitChanges();
       tick();
 
-      expect(mockOrderService.updateOrder).not.toHaveBeenCalled();
+      expect(mockOrderService.updateOrders).not.toHaveBeenCalled();
     }));
 
-    it('should update multiple products with changes', fakeAsync(() => {
+    it('should send all changed products in one batch', fakeAsync(() => {
       mockProductService.getProducts.and.returnValue(of(mockProducts));
       mockOrderService.getOrders.and.returnValue(of([]));
-      mockProductService.updateProduct.and.returnValue(of({}));
+      mockProductService.updateProducts.and.returnValue(of({}));
 
       component.products = [
         { ...mockProducts[0], price: 49.99 },
@@ -383,13 +383,13 @@ describe('AdminComponent', () => {
       component.submitChanges();
       tick();
 
-      expect(mockProductService.updateProduct).toHaveBeenCalledTimes(2);
+      expect(mockProductService.updateProducts).toHaveBeenCalledOnceWith(component.products);
     }));
 
-    it('should update multiple orders with changes', fakeAsync(() => {
+    it('should send all changed orders in one batch', fakeAsync(() => {
       mockProductService.getProducts.and.returnValue(of([]));
       mockOrderService.getOrders.and.returnValue(of(mockOrders));
-      mockOrderService.updateOrder.and.returnValue(of({}));
+      mockOrderService.updateOrders.and.returnValue(of({}));
 
       component.orders = [
         { ...mockOrders[0], status: 'Delivered' },
@@ -399,14 +399,14 @@ describe('AdminComponent', () => {
       component.submitChanges();
       tick();
 
-      expect(mockOrderService.updateOrder).toHaveBeenCalledTimes(2);
+      expect(mockOrderService.updateOrders).toHaveBeenCalledOnceWith(component.orders);
     }));
 
     it('should call setTables when data is updated', fakeAsync(() => {
       mockProductService.getProducts.and.returnValue(of(mockProducts));
       mockOrderService.getOrders.and.returnValue(of(mockOrders));
-      mockProductService.updateProduct.and.returnValue(of({}));
-      mockOrderService.updateOrder.and.returnValue(of({}));
+      mockProductService.updateProducts.and.returnValue(of({}));
+      mockOrderService.updateOrders.and.returnValue(of({}));
       spyOn(component, 'setTables');
 
       component.products = [
@@ -109,35 +109,33 @@ export class AdminComponent {
   }
 
   submitChanges() {
-    let isDataUpdate = false;
-
+    // one batched request per table, so a large edit stays within the admin rate limit
     this.productService.getProducts().subscribe((data: Product[]) => {
       this.originalProductData = [...data];
+      const changed: Product[] = [];
       for (let i = 0; i < this.originalProductData.length; i++) {
         if (this.originalProductData[i].price != this.products[i].price ||
           this.originalProductData[i].quantity != this.products[i].quantity
         ) {
-          this.productService.updateProduct(this.products[i]).subscribe((resp) => {
-            isDataUpdate = true;
-          });
+          changed.push(this.products[i]);
         }
       }
+      if (changed.length > 0) {
+        this.productService.updateProducts(changed).subscribe(() => this.setTables());
+      }
     });
 
     this.orderService.getOrders().subscribe((data: Order[]) => {
       this.originalOrderData = [...data];
+      const changed: Order[] = [];
       for (let i = 0; i < this.originalOrderData.length; i++) {
         if (this.originalOrderData[i].status != this.orders[i].status) {
-          this.orderService.updateOrder(this.orders[i]).subscribe((resp) => {
-            isDataUpdate = true;
-
-          });
+          changed.push(this.orders[i]);
         }
       }
+      if (changed.length > 0) {
+        this.orderService.updateOrders(changed).subscribe(() => this.setTables());
+      }
     });
-
-    if (isDataUpdate) {
-      this.setTables();
-    }
   }
 }
@@ -353,9 +353,9 @@ describe('OrderService', () => {
         it('should make GET request to orders endpoint', () => {
             service.getOrders().subscribe();
 
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
             expect(req.request.method).toBe('GET');
-            req.flush([]);
+            req.flush({ items: [], nextCursor: null, limit: 1000 });
         });
 
         it('should return Observable with orders array', () => {
@@ -383,16 +383,16 @@ describe('OrderService', () => {
                 expect(Array.isArray(orders)).toBe(true);
             });
 
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
-            req.flush(mockOrders);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
+            req.flush({ items: mockOrders, nextCursor: null, limit: 1000 });
         });
 
-        it('should construct correct endpoint URL with wildcard status', () => {
+        it('should request the first keyset page', () => {
             service.getOrders().subscribe();
 
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
-            expect(req.request.url).toBe(`${API_BASE_URL}/ordersByParam?status=*`);
-            req.flush([]);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
+            expect(req.request.urlWithParams).toBe(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
+            req.flush({ items: [], nextCursor: null, limit: 1000 });
         });
 
         it('should handle empty orders list', () => {
@@ -401,8 +401,8 @@ describe('OrderService', () => {
                 expect(orders.length).toBe(0);
             });
 
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
-            req.flush([]);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
+            req.flush({ items: [], nextCursor: null, limit: 1000 });
         });
 
         it('should handle single order response', () => {
@@ -420,8 +420,8 @@ describe('OrderService', () => {
                 expect(orders[0]).toEqual(mockOrder);
             });
 
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
-            req.flush([mockOrder]);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
+            req.flush({ items: [mockOrder], nextCursor: null, limit: 1000 });
         });
 
         it('should handle multiple orders response', () => {
@@ -439,8 +439,22 @@ describe('OrderService', () => {
                 expect(orders).toEqual(mockOrders);
             });
 
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
-            req.flush(mockOrders);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
+            req.flush({ items: mockOrders, nextCursor: null, limit: 1000 });
+        });
+
+        it('should follow nextCursor until the last page', () => {
+            const first: Order = { orderSk: 1, sku: 1, status: 'ORDERED', shippingId: 1, customerId: 1, orderNumber: '1' };
+            const second: Order = { orderSk: 2, sku: 2, status: 'SHIPPED', shippingId: 2, customerId: 2, orderNumber: '2' };
+
+            service.getOrders().subscribe((orders: any) => {
+                expect(orders).toEqual([first, second]);
+            });
+
+            httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`)
+                .flush({ items: [first], nextCursor: 1, limit: 1000 });
+            httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000&after=1`)
+                .flush({ items: [second], nextCursor: null, limit: 1000 });
         });
 
         it('should handle error response', () => {
@@ -451,7 +465,7 @@ describe('OrderService', () => {
                 }
             );
 
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
             req.flush(null, { status: 500, statusText: 'Internal Server Error' });
         });
     });
@@ -677,7 +691,7 @@ describe('OrderService', () => {
                 expect(orders.length).toBe(1);
             });
 
-            const getReq = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
+            const getReq = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
             getReq.flush(mockOrders);
 
             const updatedOrder: Order = {
@@ -728,7 +742,7 @@ describe('OrderService', () => {
 
         it('getOrders should use GET method', () => {
             service.getOrders().subscribe();
-            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam?status=*`);
+            const req = httpMock.expectOne(`${API_BASE_URL}/ordersByParam/page?limit=1000`);
             expect(req.request.method).toBe('GET');
             req.flush([]);
         });
@@ -740,4 +754,20 @@ describe('OrderService', () => {
             req.flush({});
         });
     });
-});
\ No newline at end of file
+
+    describe('updateOrders()', () => {
+        it('should POST all orders in one request to the batch endpoint', () => {
+            const updates: Order[] = [
+                { orderSk: 1, sku: 123, status: 'SHIPPED', shippingId: 1, customerId: 1, orderNumber: '12345' },
+                { orderSk: 2, sku: 456, status: 'DELIVERED', shippingId: 2, customerId: 2, orderNumber: '67890' }
+            ];
+
+            service.updateOrders(updates).subscribe();
+
+            const req = httpMock.expectOne(`${API_BASE_URL}/update/orders`);
+            expect(req.request.method).toBe('POST');
+            expect(req.request.body).toEqual(updates);
+            req.flush({});
+        });
+    });
+});
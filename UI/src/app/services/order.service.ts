@@ -1,6 +1,7 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, map, reduce } from 'rxjs/operators';
 
 export interface Order {
     orderSk: number,
@@ -11,11 +12,18 @@ export interface Order {
     orderNumber: string
 }
 
+export interface Page<T> {
+    items: T[],
+    nextCursor: number | null,
+    limit: number
+}
+
 @Injectable({
     providedIn: 'root'
 })
 export class OrderService {
     API_BASE_URL = 'http://localhost:8080/api';
+    ORDER_PAGE_SIZE = 1000;
 
     constructor(
         private readonly httpClient: HttpClient
@@ -33,12 +41,24 @@ export class OrderService {
         return this.httpClient.post(`${this.API_BASE_URL}/add/order`, request);
     }
 
-    getOrders() {
-        return this.httpClient.get(`${this.API_BASE_URL}/ordersByParam?status=*`);
+    getOrders(): Observable<Order[]> {
+        // walk the keyset pages; the unpaged status=* listing is capped at one page
+        const pageOf = (after?: number) => this.httpClient.get<Page<Order>>(
+            `${this.API_BASE_URL}/ordersByParam/page?limit=${this.ORDER_PAGE_SIZE}`
+            + (after == null ? '' : `&after=${after}`));
+        return pageOf().pipe(
+            expand(page => page.nextCursor == null ? EMPTY : pageOf(page.nextCursor)),
+            map(page => page.items),
+            reduce((orders: Order[], items: Order[]) => orders.concat(items), [])
+        );
     }
 
     updateOrder(request) {
         return this.httpClient.post(`${this.API_BASE_URL}/update/order`, request);
     }
 
+    updateOrders(request: Order[]) {
+        return this.httpClient.post(`${this.API_BASE_URL}/update/orders`, request);
+    }
+
 }
@@ -975,4 +975,20 @@ describe('ProductService', () => {
       req.flush({});
     });
   });
-});
\ No newline at end of file
+
+  describe('updateProducts()', () => {
+    it('should POST all products in one request to the batch endpoint', () => {
+      const updates: Product[] = [
+        { sku: 'SKU001', productName: 'Shirt', price: 9.99, productImageId: 1, size: 'Small', color: 'Black', quantity: 10 },
+        { sku: 'SKU002', productName: 'Shirt', price: 9.99, productImageId: 1, size: 'Large', color: 'Black', quantity: 0 }
+      ];
+
+      service.updateProducts(updates).subscribe();
+
+      const req = httpMock.expectOne(`${API_BASE_URL}/update/products`);
+      expect(req.request.method).toBe('POST');
+      expect(req.request.body).toEqual(updates);
+      req.flush({});
+    });
+  });
+});
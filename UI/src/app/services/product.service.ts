@@ -50,4 +50,8 @@ export class ProductService {
   updateProduct(request) {
     return this.httpClient.post(`${this.API_BASE_URL}/update/product`, request);
   }
+
+  updateProducts(request: Product[]) {
+    return this.httpClient.post(`${this.API_BASE_URL}/update/products`, request);
+  }
 }